@@ -0,0 +1,70 @@
+package com.upgrad.quora.api.config;
+
+
+import org.apache.catalina.connector.Connector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in execution of requests on virtual threads, enabled with quora.threads.virtual on a Java 21 or later runtime.
+ * Every request, and the @Transactional service calls it makes, runs on a virtual thread of its own instead of a thread of
+ * the fixed Tomcat worker pool, and streamed responses are written on virtual threads as well.
+ * Concurrency is then bounded by the Hikari pool: a request blocks for a connection up to spring.datasource.hikari.connection-timeout,
+ * and PBKDF2 work stays bounded by the password hashing executor.
+ * The code is compiled for Java 8, so the virtual thread executor is looked up by reflection.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "quora.threads", name = "virtual", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            LOGGER.info("Serving requests on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("quora.threads.virtual requires a Java 21 or later runtime, running on "
+                    + System.getProperty("java.version"), e);
+        }
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadTomcatCustomizer(final ExecutorService virtualThreadExecutor) {
+        return new WebServerFactoryCustomizer<TomcatServletWebServerFactory>() {
+            @Override
+            public void customize(final TomcatServletWebServerFactory factory) {
+                factory.addConnectorCustomizers(new TomcatConnectorCustomizer() {
+                    @Override
+                    public void customize(final Connector connector) {
+                        connector.getProtocolHandler().setExecutor(virtualThreadExecutor);
+                    }
+                });
+            }
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer virtualThreadAsyncConfigurer(final ExecutorService virtualThreadExecutor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(new ConcurrentTaskExecutor(virtualThreadExecutor));
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.upgrad.quora.api.config;
+
+
+import com.upgrad.quora.api.interceptor.AuthenticationInterceptor;
+import com.upgrad.quora.api.interceptor.SqlBudgetInterceptor;
+import com.upgrad.quora.api.interceptor.UserPrincipalArgumentResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * This Configuration registers the authentication interceptor for every endpoint which requires a signed in user.
+ * The statement budget interceptor is registered first, so that the statements of the authentication are counted too.
+ */
+@Configuration
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+    @Autowired
+    private AuthenticationInterceptor authenticationInterceptor;
+
+    @Autowired
+    private SqlBudgetInterceptor sqlBudgetInterceptor;
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(sqlBudgetInterceptor);
+        registry.addInterceptor(authenticationInterceptor)
+                .addPathPatterns("/userprofile/**", "/admin/**", "/question/**", "/answer/**", "/user/signout");
+    }
+
+    @Override
+    public void addArgumentResolvers(final List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new UserPrincipalArgumentResolver());
+    }
+}
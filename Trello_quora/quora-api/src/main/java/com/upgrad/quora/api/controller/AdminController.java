@@ -1,34 +1,175 @@
 package com.upgrad.quora.api.controller;
 
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.interceptor.AdminOnly;
+import com.upgrad.quora.api.model.ContentImportStatusResponse;
 import com.upgrad.quora.api.model.UserDeleteResponse;
+import com.upgrad.quora.api.model.UserPurgeStatusResponse;
 import com.upgrad.quora.service.business.AdminBusinessService;
+import com.upgrad.quora.service.business.ContentExportBusinessService;
+import com.upgrad.quora.service.business.ContentImportBusinessService;
 import com.upgrad.quora.service.business.UserBusinessService;
-import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.common.ContentImportProgress;
+import com.upgrad.quora.service.common.UserPurgeProgress;
+import com.upgrad.quora.service.dao.ContentExportHandler;
+import com.upgrad.quora.service.exception.ContentImportException;
 import com.upgrad.quora.service.exception.UserNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.xml.ws.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.ZonedDateTime;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/")
 public class AdminController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
     @Autowired
     private AdminBusinessService adminBusinessService;
 
+    @Autowired
+    private ContentImportBusinessService contentImportBusinessService;
+
+    @Autowired
+    private ContentExportBusinessService contentExportBusinessService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AdminOnly
     @RequestMapping(path = "/admin/user/{userId}",method = RequestMethod.DELETE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<UserDeleteResponse> deleteUser(@PathVariable("userId") final String userUuid, @RequestHeader("authorization") final String authorization) throws AuthorizationFailedException, UserNotFoundException {
+    public ResponseEntity<UserDeleteResponse> deleteUser(@PathVariable("userId") final String userUuid) throws UserNotFoundException {
+
+        //Mark requested user as deleted, the rows of the user are purged in the background
+        adminBusinessService.deleteUser(userUuid);
+
+        UserDeleteResponse userDeleteResponse = new UserDeleteResponse().id(userUuid).status("USER MARKED FOR DELETION");
+
+        return new ResponseEntity<UserDeleteResponse>(userDeleteResponse, HttpStatus.ACCEPTED);
+    }
+
+    @AdminOnly
+    @RequestMapping(path = "/admin/user/{userId}/purge",method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<UserPurgeStatusResponse> getUserPurgeStatus(@PathVariable("userId") final String userUuid) throws UserNotFoundException {
+
+        UserPurgeProgress progress = adminBusinessService.getPurgeProgress(userUuid);
+
+        UserPurgeStatusResponse userPurgeStatusResponse = new UserPurgeStatusResponse().id(userUuid)
+                .status(progress.getPhase().name())
+                .answersPurged(progress.getAnswersPurged())
+                .questionsPurged(progress.getQuestionsPurged())
+                .accessTokensPurged(progress.getAuthTokensPurged());
 
-        //Delete Requested user from db
-        adminBusinessService.deleteUser(userUuid,authorization);
+        return new ResponseEntity<UserPurgeStatusResponse>(userPurgeStatusResponse, HttpStatus.OK);
+    }
+
+    @AdminOnly
+    @RequestMapping(path = "/admin/import",method = RequestMethod.POST, consumes = NDJSON_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<ContentImportStatusResponse> importContent(final InputStream content,
+                                                                     @RequestParam(value = "fromLine", required = false) final Long fromLine) throws ContentImportException {
+
+        //The request body is read line by line as it arrives, it is never held in memory as a whole
+        ContentImportProgress progress = contentImportBusinessService.importContent(content, fromLine == null ? 1 : fromLine);
+
+        return new ResponseEntity<ContentImportStatusResponse>(toStatusResponse(progress), HttpStatus.OK);
+    }
+
+    @AdminOnly
+    @RequestMapping(path = "/admin/import",method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<ContentImportStatusResponse> getImportStatus() throws ContentImportException {
 
-        UserDeleteResponse userDeleteResponse = new UserDeleteResponse().id(userUuid).status("USER SUCCESSFULLY DELETED");
+        ContentImportProgress progress = contentImportBusinessService.getProgress();
+
+        return new ResponseEntity<ContentImportStatusResponse>(toStatusResponse(progress), HttpStatus.OK);
+    }
+
+    /**
+     * Exports the questions and answers as NDJSON written incrementally, in the line format accepted by the import.
+     * The export is gzip compressed on the fly when the client accepts the gzip encoding.
+     */
+    @AdminOnly
+    @RequestMapping(path = "/admin/export",method = RequestMethod.GET, produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportContent(@RequestParam(value = "questions", defaultValue = "true") final boolean questions,
+                                                               @RequestParam(value = "answers", defaultValue = "true") final boolean answers,
+                                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+
+        final boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if(gzip){
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        StreamingResponseBody body = new StreamingResponseBody() {
+            @Override
+            public void writeTo(final OutputStream outputStream) throws IOException {
+                final GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE) : null;
+                final JsonGenerator generator = objectMapper.getFactory().createGenerator(gzip ? gzipStream : outputStream, JsonEncoding.UTF8)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .setRootValueSeparator(null);
+                contentExportBusinessService.exportContent(questions, answers, new ContentExportHandler() {
+                    @Override
+                    public void question(final String uuid, final String content, final ZonedDateTime date, final String userUuid, final int answerCount) throws IOException {
+                        generator.writeStartObject();
+                        generator.writeStringField("type", "question");
+                        generator.writeStringField("uuid", uuid);
+                        generator.writeStringField("content", content);
+                        generator.writeStringField("date", date.toOffsetDateTime().toString());
+                        generator.writeStringField("user", userUuid);
+                        generator.writeNumberField("answerCount", answerCount);
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                    }
+
+                    @Override
+                    public void answer(final String uuid, final String answer, final ZonedDateTime date, final String userUuid, final String questionUuid) throws IOException {
+                        generator.writeStartObject();
+                        generator.writeStringField("type", "answer");
+                        generator.writeStringField("uuid", uuid);
+                        generator.writeStringField("answer", answer);
+                        generator.writeStringField("date", date.toOffsetDateTime().toString());
+                        generator.writeStringField("user", userUuid);
+                        generator.writeStringField("question", questionUuid);
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                    }
+                });
+                generator.close();
+                if(gzipStream != null){
+                    gzipStream.finish();
+                }
+            }
+        };
+
+        return new ResponseEntity<StreamingResponseBody>(body, headers, HttpStatus.OK);
+    }
 
-        return new ResponseEntity<UserDeleteResponse>(userDeleteResponse, HttpStatus.OK);
+    private static ContentImportStatusResponse toStatusResponse(final ContentImportProgress progress) {
+        return new ContentImportStatusResponse().status(progress.getPhase().name())
+                .linesRead(progress.getLinesRead())
+                .linesRejected(progress.getLinesRejected())
+                .usersImported(progress.getUsersImported())
+                .questionsImported(progress.getQuestionsImported())
+                .answersImported(progress.getAnswersImported())
+                .chunksCommitted(progress.getChunksCommitted())
+                .committedLine(progress.getCommittedLine())
+                .errors(progress.getErrors());
     }
 }
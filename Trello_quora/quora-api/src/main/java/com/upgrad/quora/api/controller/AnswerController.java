@@ -0,0 +1,83 @@
+package com.upgrad.quora.api.controller;
+
+
+import com.upgrad.quora.api.model.AnswerDeleteResponse;
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.api.model.AnswerRequest;
+import com.upgrad.quora.api.model.AnswerResponse;
+import com.upgrad.quora.service.business.AnswerBusinessService;
+import com.upgrad.quora.service.common.AnswerSummary;
+import com.upgrad.quora.service.common.UserPrincipal;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.exception.AnswerNotFoundException;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidBulkRequestException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/")
+public class AnswerController {
+
+    @Autowired
+    private AnswerBusinessService answerBusinessService;
+
+    @PostMapping(path = "/question/{questionId}/answer/create", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<AnswerResponse> createAnswer(final UserPrincipal principal, @PathVariable("questionId") final String questionUuid,
+                                                       final AnswerRequest answerRequest) throws InvalidQuestionException {
+
+        AnswerEntity answerEntity = answerBusinessService.createAnswer(principal, questionUuid, answerRequest.getAnswer());
+
+        AnswerResponse answerResponse = new AnswerResponse().id(answerEntity.getUuid()).status("ANSWER CREATED");
+        return new ResponseEntity<AnswerResponse>(answerResponse, HttpStatus.CREATED);
+    }
+
+    @PostMapping(path = "/question/{questionId}/answer/bulk-create", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<List<AnswerResponse>> createAnswers(final UserPrincipal principal, @PathVariable("questionId") final String questionUuid,
+                                                              @RequestBody final List<AnswerRequest> answerRequests) throws InvalidQuestionException, InvalidBulkRequestException {
+
+        List<String> answers = new ArrayList<String>(answerRequests.size());
+        for (AnswerRequest answerRequest : answerRequests) {
+            answers.add(answerRequest.getAnswer());
+        }
+        List<AnswerEntity> answerEntities = answerBusinessService.createAnswers(principal, questionUuid, answers);
+
+        List<AnswerResponse> answerResponses = new ArrayList<AnswerResponse>(answerEntities.size());
+        for (AnswerEntity answerEntity : answerEntities) {
+            answerResponses.add(new AnswerResponse().id(answerEntity.getUuid()).status("ANSWER CREATED"));
+        }
+        return new ResponseEntity<List<AnswerResponse>>(answerResponses, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping(path = "/answer/delete/{answerId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<AnswerDeleteResponse> deleteAnswer(final UserPrincipal principal, @PathVariable("answerId") final String answerUuid) throws AuthorizationFailedException, AnswerNotFoundException {
+
+        AnswerEntity answerEntity = answerBusinessService.deleteAnswer(principal, answerUuid);
+
+        AnswerDeleteResponse answerDeleteResponse = new AnswerDeleteResponse().id(answerEntity.getUuid()).status("ANSWER DELETED");
+        return new ResponseEntity<AnswerDeleteResponse>(answerDeleteResponse, HttpStatus.OK);
+    }
+
+    @GetMapping(path = "/answer/all/{questionId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<List<AnswerDetailsResponse>> getAllAnswersToQuestion(@PathVariable("questionId") final String questionUuid) throws InvalidQuestionException {
+
+        AnswerBusinessService.QuestionAnswers questionAnswers = answerBusinessService.getAllAnswersToQuestion(questionUuid);
+
+        List<AnswerDetailsResponse> answerDetailsResponses = new ArrayList<AnswerDetailsResponse>(questionAnswers.getAnswers().size());
+        for (AnswerSummary answer : questionAnswers.getAnswers()) {
+            answerDetailsResponses.add(new AnswerDetailsResponse()
+                    .id(answer.getUuid())
+                    .questionContent(questionAnswers.getQuestionContent())
+                    .answerContent(answer.getAnswer()));
+        }
+
+        return new ResponseEntity<List<AnswerDetailsResponse>>(answerDetailsResponses, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,147 @@
+package com.upgrad.quora.api.controller;
+
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.QuestionDeleteResponse;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import com.upgrad.quora.api.model.QuestionEditRequest;
+import com.upgrad.quora.api.model.QuestionEditResponse;
+import com.upgrad.quora.api.model.QuestionRequest;
+import com.upgrad.quora.api.model.QuestionResponse;
+import com.upgrad.quora.service.business.QuestionBusinessService;
+import com.upgrad.quora.service.common.QuestionPage;
+import com.upgrad.quora.service.common.QuestionSummary;
+import com.upgrad.quora.service.common.UserPrincipal;
+import com.upgrad.quora.service.dao.QuestionRowHandler;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidBulkRequestException;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/")
+public class QuestionController {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    @Autowired
+    private QuestionBusinessService questionBusinessService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Returns one page of questions, newest first, as a JSON array of QuestionDetailsResponse written incrementally.
+     * The continuation token of the next page is returned in the X-Next-Cursor header, which is absent on the final page.
+     */
+    @GetMapping(path = "/question/all", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllQuestions(@RequestParam(value = "cursor", required = false) final String cursor,
+                                                                 @RequestParam(value = "limit", required = false) final Integer limit) throws InvalidCursorException {
+
+        final QuestionPage questionPage = questionBusinessService.getQuestionPage(cursor, limit);
+
+        HttpHeaders headers = new HttpHeaders();
+        if(questionPage.getNextCursor() != null){
+            headers.set(NEXT_CURSOR_HEADER, questionPage.getNextCursor());
+        }
+
+        StreamingResponseBody body = new StreamingResponseBody() {
+            @Override
+            public void writeTo(final OutputStream outputStream) throws IOException {
+                final JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                questionBusinessService.streamQuestions(questionPage, new QuestionRowHandler() {
+                    @Override
+                    public void handle(final String uuid, final String content, final int answerCount) throws IOException {
+                        //Fields of QuestionDetailsResponse, written directly so that no response object is built per row
+                        generator.writeStartObject();
+                        generator.writeStringField("id", uuid);
+                        generator.writeStringField("content", content);
+                        generator.writeNumberField("answerCount", answerCount);
+                        generator.writeEndObject();
+                    }
+                });
+                generator.writeEndArray();
+                generator.close();
+            }
+        };
+
+        return new ResponseEntity<StreamingResponseBody>(body, headers, HttpStatus.OK);
+    }
+
+    @PostMapping(path = "/question/create", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<QuestionResponse> createQuestion(final UserPrincipal principal, final QuestionRequest questionRequest) {
+
+        QuestionEntity questionEntity = questionBusinessService.createQuestion(principal, questionRequest.getContent());
+
+        QuestionResponse questionResponse = new QuestionResponse().id(questionEntity.getUuid()).status("QUESTION CREATED");
+        return new ResponseEntity<QuestionResponse>(questionResponse, HttpStatus.CREATED);
+    }
+
+    @PostMapping(path = "/question/bulk-create", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<List<QuestionResponse>> createQuestions(final UserPrincipal principal, @RequestBody final List<QuestionRequest> questionRequests) throws InvalidBulkRequestException {
+
+        List<String> contents = new ArrayList<String>(questionRequests.size());
+        for (QuestionRequest questionRequest : questionRequests) {
+            contents.add(questionRequest.getContent());
+        }
+        List<QuestionEntity> questionEntities = questionBusinessService.createQuestions(principal, contents);
+
+        List<QuestionResponse> questionResponses = new ArrayList<QuestionResponse>(questionEntities.size());
+        for (QuestionEntity questionEntity : questionEntities) {
+            questionResponses.add(new QuestionResponse().id(questionEntity.getUuid()).status("QUESTION CREATED"));
+        }
+        return new ResponseEntity<List<QuestionResponse>>(questionResponses, HttpStatus.CREATED);
+    }
+
+    @PutMapping(path = "/question/edit/{questionId}", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<QuestionEditResponse> editQuestionContent(final UserPrincipal principal, @PathVariable("questionId") final String questionUuid,
+                                                                    final QuestionEditRequest questionEditRequest) throws AuthorizationFailedException, InvalidQuestionException {
+
+        QuestionEntity questionEntity = questionBusinessService.editQuestionContent(principal, questionUuid, questionEditRequest.getContent());
+
+        QuestionEditResponse questionEditResponse = new QuestionEditResponse().id(questionEntity.getUuid()).status("QUESTION EDITED");
+        return new ResponseEntity<QuestionEditResponse>(questionEditResponse, HttpStatus.OK);
+    }
+
+    @DeleteMapping(path = "/question/delete/{questionId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<QuestionDeleteResponse> deleteQuestion(final UserPrincipal principal, @PathVariable("questionId") final String questionUuid) throws AuthorizationFailedException, InvalidQuestionException {
+
+        QuestionEntity questionEntity = questionBusinessService.deleteQuestion(principal, questionUuid);
+
+        QuestionDeleteResponse questionDeleteResponse = new QuestionDeleteResponse().id(questionEntity.getUuid()).status("QUESTION DELETED");
+        return new ResponseEntity<QuestionDeleteResponse>(questionDeleteResponse, HttpStatus.OK);
+    }
+
+    /**
+     * Full-text search over the content of the questions, best match first.
+     */
+    @GetMapping(path = "/question/search", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<List<QuestionDetailsResponse>> searchQuestions(@RequestParam("query") final String query,
+                                                                         @RequestParam(value = "limit", required = false, defaultValue = "10") final int limit) {
+
+        List<QuestionSummary> hits = questionBusinessService.searchQuestions(query, limit);
+
+        List<QuestionDetailsResponse> questionDetailsResponses = new ArrayList<QuestionDetailsResponse>(hits.size());
+        for (QuestionSummary hit : hits) {
+            questionDetailsResponses.add(new QuestionDetailsResponse().id(hit.getUuid()).content(hit.getContent()));
+        }
+        return new ResponseEntity<List<QuestionDetailsResponse>>(questionDetailsResponses, HttpStatus.OK);
+    }
+}
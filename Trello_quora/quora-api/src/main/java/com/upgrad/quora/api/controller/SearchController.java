@@ -0,0 +1,70 @@
+package com.upgrad.quora.api.controller;
+
+
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import com.upgrad.quora.service.business.SearchBusinessService;
+import com.upgrad.quora.service.common.AnswerSearchHit;
+import com.upgrad.quora.service.common.QuestionSearchHit;
+import com.upgrad.quora.service.common.SearchPage;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full text search ranked by the database. Hits are returned best match first, the continuation token of the next page
+ * is returned in the X-Next-Cursor header, which is absent on the final page.
+ */
+@RestController
+@RequestMapping("/")
+public class SearchController {
+
+    @Autowired
+    private SearchBusinessService searchBusinessService;
+
+    @GetMapping(path = "/question/fulltext", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<List<QuestionDetailsResponse>> searchQuestions(@RequestParam("query") final String query,
+                                                                         @RequestParam(value = "cursor", required = false) final String cursor,
+                                                                         @RequestParam(value = "limit", required = false) final Integer limit) throws InvalidCursorException {
+
+        SearchPage<QuestionSearchHit> searchPage = searchBusinessService.searchQuestions(query, cursor, limit);
+
+        List<QuestionDetailsResponse> questionDetailsResponses = new ArrayList<QuestionDetailsResponse>(searchPage.getHits().size());
+        for (QuestionSearchHit hit : searchPage.getHits()) {
+            questionDetailsResponses.add(new QuestionDetailsResponse().id(hit.getUuid()).content(hit.getContent()));
+        }
+        return new ResponseEntity<List<QuestionDetailsResponse>>(questionDetailsResponses, nextCursorHeader(searchPage), HttpStatus.OK);
+    }
+
+    @GetMapping(path = "/answer/fulltext", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<List<AnswerDetailsResponse>> searchAnswers(@RequestParam("query") final String query,
+                                                                     @RequestParam(value = "cursor", required = false) final String cursor,
+                                                                     @RequestParam(value = "limit", required = false) final Integer limit) throws InvalidCursorException {
+
+        SearchPage<AnswerSearchHit> searchPage = searchBusinessService.searchAnswers(query, cursor, limit);
+
+        List<AnswerDetailsResponse> answerDetailsResponses = new ArrayList<AnswerDetailsResponse>(searchPage.getHits().size());
+        for (AnswerSearchHit hit : searchPage.getHits()) {
+            answerDetailsResponses.add(new AnswerDetailsResponse()
+                    .id(hit.getUuid())
+                    .questionContent(hit.getQuestionContent())
+                    .answerContent(hit.getAnswer()));
+        }
+        return new ResponseEntity<List<AnswerDetailsResponse>>(answerDetailsResponses, nextCursorHeader(searchPage), HttpStatus.OK);
+    }
+
+    private static HttpHeaders nextCursorHeader(final SearchPage<?> searchPage) {
+        HttpHeaders headers = new HttpHeaders();
+        if(searchPage.getNextCursor() != null){
+            headers.set(QuestionController.NEXT_CURSOR_HEADER, searchPage.getNextCursor());
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,107 @@
+package com.upgrad.quora.api.controller;
+
+
+import com.upgrad.quora.api.interceptor.AuthenticationInterceptor;
+import com.upgrad.quora.api.model.SigninResponse;
+import com.upgrad.quora.api.model.SignupUserRequest;
+import com.upgrad.quora.api.model.SignoutResponse;
+import com.upgrad.quora.api.model.SignupUserResponse;
+import com.upgrad.quora.service.business.AuthenticationBusinessService;
+import com.upgrad.quora.service.business.UserBusinessService;
+import com.upgrad.quora.service.common.UserPrincipal;
+import com.upgrad.quora.service.entity.UserAuthTokenEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthenticationFailedException;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.HashingCapacityExceededException;
+import com.upgrad.quora.service.exception.SignUpRestrictedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@RestController
+@RequestMapping("/")
+public class UserController {
+
+    private static final String ACCESS_TOKEN_HEADER = "access-token";
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    @Autowired
+    private UserBusinessService userBusinessService;
+
+    @Autowired
+    private AuthenticationBusinessService authenticationBusinessService;
+
+    @PostMapping(path = "/user/signup", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<SignupUserResponse> signup(final SignupUserRequest signupUserRequest) throws SignUpRestrictedException, HashingCapacityExceededException {
+
+        UserEntity userEntity = new UserEntity();
+        userEntity.setFirstName(signupUserRequest.getFirstName());
+        userEntity.setLastName(signupUserRequest.getLastName());
+        userEntity.setUserName(signupUserRequest.getUserName());
+        userEntity.setEmail(signupUserRequest.getEmailAddress());
+        userEntity.setCountry(signupUserRequest.getCountry());
+        userEntity.setAboutMe(signupUserRequest.getAboutMe());
+        userEntity.setDob(signupUserRequest.getDob());
+        userEntity.setContactNumber(signupUserRequest.getContactNumber());
+
+        UserEntity createdUser = userBusinessService.signup(userEntity, signupUserRequest.getPassword());
+
+        SignupUserResponse signupUserResponse = new SignupUserResponse().id(createdUser.getUuid()).status("USER SUCCESSFULLY REGISTERED");
+        return new ResponseEntity<SignupUserResponse>(signupUserResponse, HttpStatus.CREATED);
+    }
+
+    @PostMapping(path = "/user/signin", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<SigninResponse> signin(@RequestHeader("authorization") final String authorization) throws AuthenticationFailedException, HashingCapacityExceededException {
+
+        String[] credentials = decodeBasicCredentials(authorization);
+
+        //Validate if the authorization header carries Base64 encoded "username:password" credentials
+        if(credentials == null){
+            throw new AuthenticationFailedException("ATH-003","Credentials are not in the format username:password");
+        }
+
+        UserAuthTokenEntity userAuthToken = authenticationBusinessService.signin(credentials[0], credentials[1]);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ACCESS_TOKEN_HEADER, userAuthToken.getAccessToken());
+        SigninResponse signinResponse = new SigninResponse().id(userAuthToken.getUser().getUuid()).message("SIGNED IN SUCCESSFULLY");
+        return new ResponseEntity<SigninResponse>(signinResponse, headers, HttpStatus.OK);
+    }
+
+    /**
+     * The access token has been authenticated by the AuthenticationInterceptor, which publishes it along with the principal.
+     */
+    @PostMapping(path = "/user/signout", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<SignoutResponse> signout(final UserPrincipal principal,
+                                                   @RequestAttribute(AuthenticationInterceptor.ACCESS_TOKEN_ATTRIBUTE) final String accessToken) throws AuthorizationFailedException {
+
+        authenticationBusinessService.signout(accessToken);
+
+        SignoutResponse signoutResponse = new SignoutResponse().id(principal.getUserUuid()).message("SIGNED OUT SUCCESSFULLY");
+        return new ResponseEntity<SignoutResponse>(signoutResponse, HttpStatus.OK);
+    }
+
+    //Accepts both "Basic <credentials>" and the bare Base64 encoded credentials
+    private static String[] decodeBasicCredentials(final String authorization) {
+        String encoded = authorization.startsWith(BASIC_PREFIX) ? authorization.substring(BASIC_PREFIX.length()) : authorization;
+        String decoded;
+        try {
+            decoded = new String(Base64.getDecoder().decode(encoded.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int separator = decoded.indexOf(':');
+        if (separator <= 0) {
+            return null;
+        }
+        return new String[]{decoded.substring(0, separator), decoded.substring(separator + 1)};
+    }
+}
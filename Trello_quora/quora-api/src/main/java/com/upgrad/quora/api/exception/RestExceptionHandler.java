@@ -1,8 +1,20 @@
 package com.upgrad.quora.api.exception;
 
 import com.upgrad.quora.api.model.ErrorResponse;
+import com.upgrad.quora.service.exception.AnswerNotFoundException;
+import com.upgrad.quora.service.exception.AuthenticationFailedException;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.ContentImportException;
+import com.upgrad.quora.service.exception.HashingCapacityExceededException;
+import com.upgrad.quora.service.exception.InvalidBulkRequestException;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import com.upgrad.quora.service.exception.SignUpRestrictedException;
+import com.upgrad.quora.service.exception.SqlBudgetExceededException;
 import com.upgrad.quora.service.exception.UserNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -13,14 +25,85 @@ import org.springframework.web.context.request.WebRequest;
 @ControllerAdvice
 public class RestExceptionHandler {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @ExceptionHandler(SignUpRestrictedException.class)
+    public ResponseEntity<ErrorResponse> signUpRestrictedException(SignUpRestrictedException sre, WebRequest webRequest){
+        countError(sre.getCode());
+        return new  ResponseEntity<ErrorResponse>(new ErrorResponse().code(sre.getCode()).message(sre.getErrorMessage()), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(AuthenticationFailedException.class)
+    public ResponseEntity<ErrorResponse> authenticationFailedException(AuthenticationFailedException afe, WebRequest webRequest){
+        countError(afe.getCode());
+        return new  ResponseEntity<ErrorResponse>(new ErrorResponse().code(afe.getCode()).message(afe.getErrorMessage()), HttpStatus.UNAUTHORIZED);
+    }
+
     @ExceptionHandler(AuthorizationFailedException.class)
     public ResponseEntity<ErrorResponse> authorizationFailedException(AuthorizationFailedException afe, WebRequest webRequest){
+        countError(afe.getCode());
         return new  ResponseEntity<ErrorResponse>(new ErrorResponse().code(afe.getCode()).message(afe.getErrorMessage()), HttpStatus.UNAUTHORIZED);
     }
 
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<ErrorResponse> authorizationFailedException(UserNotFoundException afe, WebRequest webRequest){
+        countError(afe.getCode());
         return new  ResponseEntity<ErrorResponse>(new ErrorResponse().code(afe.getCode()).message(afe.getErrorMessage()), HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(InvalidBulkRequestException.class)
+    public ResponseEntity<ErrorResponse> invalidBulkRequestException(InvalidBulkRequestException ibe, WebRequest webRequest){
+        countError(ibe.getCode());
+        return new  ResponseEntity<ErrorResponse>(new ErrorResponse().code(ibe.getCode()).message(ibe.getErrorMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> invalidCursorException(InvalidCursorException ice, WebRequest webRequest){
+        countError(ice.getCode());
+        return new  ResponseEntity<ErrorResponse>(new ErrorResponse().code(ice.getCode()).message(ice.getErrorMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidQuestionException.class)
+    public ResponseEntity<ErrorResponse> invalidQuestionException(InvalidQuestionException iqe, WebRequest webRequest){
+        countError(iqe.getCode());
+        return new  ResponseEntity<ErrorResponse>(new ErrorResponse().code(iqe.getCode()).message(iqe.getErrorMessage()), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(AnswerNotFoundException.class)
+    public ResponseEntity<ErrorResponse> answerNotFoundException(AnswerNotFoundException anfe, WebRequest webRequest){
+        countError(anfe.getCode());
+        return new  ResponseEntity<ErrorResponse>(new ErrorResponse().code(anfe.getCode()).message(anfe.getErrorMessage()), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ContentImportException.class)
+    public ResponseEntity<ErrorResponse> contentImportException(ContentImportException cie, WebRequest webRequest){
+        countError(cie.getCode());
+        HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY;
+        if("IMP-001".equals(cie.getCode())){
+            status = HttpStatus.CONFLICT;
+        } else if("IMP-003".equals(cie.getCode())){
+            status = HttpStatus.NOT_FOUND;
+        }
+        return new  ResponseEntity<ErrorResponse>(new ErrorResponse().code(cie.getCode()).message(cie.getErrorMessage()), status);
+    }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> hashingCapacityExceededException(HashingCapacityExceededException hce, WebRequest webRequest){
+        countError(hce.getCode());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(hce.getRetryAfterSeconds()));
+        return new  ResponseEntity<ErrorResponse>(new ErrorResponse().code(hce.getCode()).message(hce.getErrorMessage()), headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(SqlBudgetExceededException.class)
+    public ResponseEntity<ErrorResponse> sqlBudgetExceededException(SqlBudgetExceededException sbe, WebRequest webRequest){
+        countError(sbe.getCode());
+        return new  ResponseEntity<ErrorResponse>(new ErrorResponse().code(sbe.getCode()).message(sbe.getErrorMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    //One counter per error code, so that a rise of a single ATHR- or USR- failure stands out from the other errors
+    private void countError(final String code){
+        meterRegistry.counter("quora.api.errors", "code", code).increment();
+    }
 }
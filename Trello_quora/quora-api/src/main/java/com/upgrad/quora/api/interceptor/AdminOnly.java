@@ -0,0 +1,17 @@
+package com.upgrad.quora.api.interceptor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint which can only be accessed by a signed in user with the admin role.
+ * The role is checked by the AuthenticationInterceptor before the endpoint is invoked.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface AdminOnly {
+}
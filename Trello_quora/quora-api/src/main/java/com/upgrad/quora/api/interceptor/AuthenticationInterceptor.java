@@ -0,0 +1,99 @@
+package com.upgrad.quora.api.interceptor;
+
+import com.upgrad.quora.service.business.AuthenticationBusinessService;
+import com.upgrad.quora.service.common.UserPrincipal;
+import com.upgrad.quora.service.datasource.ReadYourWritesPolicy;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Resolves the authorization header once per request and publishes the principal of the signed in user as a request attribute.
+ * Requests without a well-formed header are rejected here, before any transaction or database connection is opened.
+ */
+@Component
+public class AuthenticationInterceptor extends HandlerInterceptorAdapter {
+
+    public static final String PRINCIPAL_ATTRIBUTE = UserPrincipal.class.getName();
+
+    public static final String ACCESS_TOKEN_ATTRIBUTE = AuthenticationInterceptor.class.getName() + ".accessToken";
+
+    private static final String AUTHORIZATION_HEADER = "authorization";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Autowired
+    private AuthenticationBusinessService authenticationBusinessService;
+
+    @Autowired
+    private ReadYourWritesPolicy readYourWritesPolicy;
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) throws AuthorizationFailedException {
+
+        //Skip handlers which are not endpoints, and the async dispatch of a streamed response which was already authenticated
+        if (!(handler instanceof HandlerMethod) || request.getAttribute(PRINCIPAL_ATTRIBUTE) != null) {
+            return true;
+        }
+
+        String accessToken = extractAccessToken(request.getHeader(AUTHORIZATION_HEADER));
+
+        //Validate if the authorization header is present and well-formed
+        if (accessToken == null) {
+            throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
+        }
+
+        UserPrincipal principal = authenticationBusinessService.resolvePrincipal(accessToken);
+
+        //Validate user is admin or not
+        if (isAdminOnly((HandlerMethod) handler) && !principal.isAdmin()) {
+            throw new AuthorizationFailedException("ATHR-003", "Unauthorized Access, Entered user is not an admin");
+        }
+
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        request.setAttribute(ACCESS_TOKEN_ATTRIBUTE, accessToken);
+
+        //Bind the user to the request thread for the read-your-writes routing of the read-only transactions of the user
+        readYourWritesPolicy.bind(principal.getUserUuid());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler, final Exception ex) {
+        readYourWritesPolicy.unbind();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        readYourWritesPolicy.unbind();
+    }
+
+    private static boolean isAdminOnly(final HandlerMethod handlerMethod) {
+        return handlerMethod.hasMethodAnnotation(AdminOnly.class)
+                || AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), AdminOnly.class);
+    }
+
+    //Accepts both the raw access token and the "Bearer <token>" form, anything blank or containing whitespace is malformed
+    private static String extractAccessToken(final String authorization) {
+        if (authorization == null) {
+            return null;
+        }
+        String accessToken = authorization.startsWith(BEARER_PREFIX) ? authorization.substring(BEARER_PREFIX.length()) : authorization;
+        accessToken = accessToken.trim();
+        if (accessToken.isEmpty()) {
+            return null;
+        }
+        for (int i = 0; i < accessToken.length(); i++) {
+            if (Character.isWhitespace(accessToken.charAt(i))) {
+                return null;
+            }
+        }
+        return accessToken;
+    }
+}
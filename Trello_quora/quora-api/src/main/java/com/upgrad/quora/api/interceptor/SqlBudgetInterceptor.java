@@ -0,0 +1,55 @@
+package com.upgrad.quora.api.interceptor;
+
+import com.upgrad.quora.service.datasource.SqlStatementBudget;
+import com.upgrad.quora.service.datasource.SqlStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the JDBC statements of every request against the statement budget of its endpoint.
+ * The statistics are published as a request attribute once the request completes, so that a MockMvc test can assert on the
+ * statements of an endpoint with result.getRequest().getAttribute(SqlBudgetInterceptor.STATISTICS_ATTRIBUTE).
+ */
+@Component
+public class SqlBudgetInterceptor extends HandlerInterceptorAdapter {
+
+    public static final String STATISTICS_ATTRIBUTE = SqlStatistics.class.getName();
+
+    @Autowired
+    private SqlStatementBudget sqlStatementBudget;
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+
+        //The async dispatch of a streamed response is not counted again, the stream itself is written on another thread
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        sqlStatementBudget.start(request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler, final Exception ex) {
+        publish(request);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        publish(request);
+    }
+
+    private void publish(final HttpServletRequest request) {
+        SqlStatistics statistics = sqlStatementBudget.stop();
+        if (statistics != null) {
+            request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+        }
+    }
+}
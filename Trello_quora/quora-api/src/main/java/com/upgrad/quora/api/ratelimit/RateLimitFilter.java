@@ -0,0 +1,173 @@
+package com.upgrad.quora.api.ratelimit;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.quora.service.business.JwtTokenProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Rate limits every request before it reaches Spring MVC, with a token bucket per key and endpoint group.
+ * Sign up and sign in are limited per client IP, so that a flood of them is turned away before any password is hashed.
+ * The other groups are limited per signed in user, taken from the verified access token, and per client IP for requests without a valid one:
+ * an unverified header would let a client get a fresh bucket with every request just by changing the header.
+ * Requests are grouped on the path Spring MVC maps, with path parameters removed and duplicate slashes collapsed.
+ * A rejected request is answered with 429 and a fixed body, without touching the service layer or the database.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "quora.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTHORIZATION_HEADER = "authorization";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    private static final byte[] REJECTED_BODY = "{\"code\":\"RATE-001\",\"message\":\"Too many requests, retry later\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Value("${quora.rate-limit.stripes:16}")
+    private int stripes;
+
+    @Value("${quora.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${quora.rate-limit.idle-seconds:60}")
+    private long idleSeconds;
+
+    @Value("${quora.rate-limit.auth.permits-per-second:0.5}")
+    private double authPermitsPerSecond;
+
+    @Value("${quora.rate-limit.auth.burst:5}")
+    private int authBurst;
+
+    @Value("${quora.rate-limit.reads.permits-per-second:50}")
+    private double readsPermitsPerSecond;
+
+    @Value("${quora.rate-limit.reads.burst:100}")
+    private int readsBurst;
+
+    @Value("${quora.rate-limit.writes.permits-per-second:10}")
+    private double writesPermitsPerSecond;
+
+    @Value("${quora.rate-limit.writes.burst:20}")
+    private int writesBurst;
+
+    @Value("${quora.rate-limit.admin.permits-per-second:5}")
+    private double adminPermitsPerSecond;
+
+    @Value("${quora.rate-limit.admin.burst:10}")
+    private int adminBurst;
+
+    private final Map<RateLimitGroup, TokenBucketRateLimiter> limiters = new EnumMap<RateLimitGroup, TokenBucketRateLimiter>(RateLimitGroup.class);
+
+    private final Map<RateLimitGroup, Counter> rejections = new EnumMap<RateLimitGroup, Counter>(RateLimitGroup.class);
+
+    @PostConstruct
+    public void createLimiters() {
+        limiters.put(RateLimitGroup.AUTH, new TokenBucketRateLimiter(authPermitsPerSecond, authBurst, stripes, maxKeys));
+        limiters.put(RateLimitGroup.READS, new TokenBucketRateLimiter(readsPermitsPerSecond, readsBurst, stripes, maxKeys));
+        limiters.put(RateLimitGroup.WRITES, new TokenBucketRateLimiter(writesPermitsPerSecond, writesBurst, stripes, maxKeys));
+        limiters.put(RateLimitGroup.ADMIN, new TokenBucketRateLimiter(adminPermitsPerSecond, adminBurst, stripes, maxKeys));
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            rejections.put(group, meterRegistry.counter("quora.rate.limit.rejected", "group", group.name().toLowerCase()));
+        }
+        Gauge.builder("quora.rate.limit.keys", this, new ToDoubleFunction<RateLimitFilter>() {
+            @Override
+            public double applyAsDouble(final RateLimitFilter filter) {
+                return filter.getTrackedKeys();
+            }
+        }).register(meterRegistry);
+    }
+
+    //Scrapes of the metrics endpoint are not limited
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return path(request).startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
+            throws ServletException, IOException {
+
+        final RateLimitGroup group = RateLimitGroup.of(request.getMethod(), path(request));
+        final long waitNanos = limiters.get(group).tryAcquire(key(group, request), System.nanoTime());
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejections.get(group).increment();
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999999999L))));
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLength(REJECTED_BODY.length);
+        response.getOutputStream().write(REJECTED_BODY);
+    }
+
+    @Scheduled(fixedDelayString = "${quora.rate-limit.evict-interval-ms:10000}")
+    public void evictIdleBuckets() {
+        final long now = System.nanoTime();
+        for (TokenBucketRateLimiter limiter : limiters.values()) {
+            limiter.evictIdle(now, TimeUnit.SECONDS.toNanos(idleSeconds));
+        }
+    }
+
+    public int getTrackedKeys() {
+        int keys = 0;
+        for (TokenBucketRateLimiter limiter : limiters.values()) {
+            keys += limiter.size();
+        }
+        return keys;
+    }
+
+    //The client IP is the remote address, behind a proxy server.use-forward-headers makes it the address of the client
+    private String key(final RateLimitGroup group, final HttpServletRequest request) {
+        if (group != RateLimitGroup.AUTH) {
+            String authorization = request.getHeader(AUTHORIZATION_HEADER);
+            if (authorization != null) {
+                String accessToken = authorization.startsWith(BEARER_PREFIX) ? authorization.substring(BEARER_PREFIX.length()) : authorization;
+                //Only the signature, issuer and expiry are checked, which takes no database lookup
+                DecodedJWT decodedJWT = jwtTokenProvider.verifyToken(accessToken.trim());
+                if (decodedJWT != null) {
+                    return "user:" + decodedJWT.getAudience().get(0);
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static String path(final HttpServletRequest request) {
+        return URL_PATH_HELPER.getPathWithinApplication(request);
+    }
+}
@@ -0,0 +1,32 @@
+package com.upgrad.quora.api.ratelimit;
+
+/**
+ * Endpoint groups with limits of their own.
+ */
+public enum RateLimitGroup {
+
+    //Sign up, sign in and sign out, keyed by client IP as the caller is not yet known
+    AUTH,
+
+    READS,
+
+    WRITES,
+
+    ADMIN;
+
+    /**
+     * @param path - path of the request within the context path, normalized as Spring MVC does before it maps the request
+     */
+    public static RateLimitGroup of(final String method, final String path) {
+        if (path.startsWith("/user/")) {
+            return AUTH;
+        }
+        if (path.startsWith("/admin/")) {
+            return ADMIN;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return READS;
+        }
+        return WRITES;
+    }
+}
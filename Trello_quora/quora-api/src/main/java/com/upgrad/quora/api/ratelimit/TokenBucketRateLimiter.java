@@ -0,0 +1,126 @@
+package com.upgrad.quora.api.ratelimit;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per key, refilled at a fixed rate up to a burst.
+ * A bucket is kept as the single time at which it will be full again (the generic cell rate algorithm), so that taking a token
+ * is one compare-and-set on an AtomicLong and needs neither a lock nor a refill timer.
+ * Keys are spread over independent maps, and a bucket which has been full again for a while is evicted: a fresh bucket behaves the same.
+ * The number of buckets is capped, once a map is full its new keys share a single overflow bucket until eviction makes room again.
+ */
+public class TokenBucketRateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+
+    private final long intervalNanos;
+
+    private final long burstNanos;
+
+    private final int maxKeysPerStripe;
+
+    private final AtomicLong overflow;
+
+    /**
+     * @param permitsPerSecond - rate at which tokens are added to a bucket
+     * @param burst            - tokens a bucket holds when full
+     * @param stripes          - number of maps the keys are spread over, rounded up to a power of two
+     * @param maxKeys          - number of buckets kept at most
+     */
+    @SuppressWarnings("unchecked")
+    public TokenBucketRateLimiter(final double permitsPerSecond, final int burst, final int stripes, final int maxKeys) {
+        //A rate of 0 would make the interval infinite and overflow the burst
+        if (!(permitsPerSecond > 0) || permitsPerSecond > 1e9) {
+            throw new IllegalArgumentException("permits-per-second must be greater than 0 and at most 1e9, was " + permitsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1, was " + burst);
+        }
+        if ((long) (1e9 / permitsPerSecond) > Long.MAX_VALUE / 4 / burst) {
+            throw new IllegalArgumentException("burst of " + burst + " at " + permitsPerSecond + " permits per second takes too long to refill");
+        }
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("max-keys must be at least 1, was " + maxKeys);
+        }
+        this.intervalNanos = (long) (1e9 / permitsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        int size = Integer.highestOneBit(Math.max(stripes, 1) - 1) << 1;
+        this.stripes = new ConcurrentHashMap[Math.max(size, 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ConcurrentHashMap<String, AtomicLong>();
+        }
+        this.maxKeysPerStripe = Math.max(1, maxKeys / this.stripes.length);
+        this.overflow = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Takes a token from the bucket of the key.
+     *
+     * @return - 0 if a token was taken, otherwise the nanoseconds until the bucket holds a token again
+     */
+    public long tryAcquire(final String key, final long nowNanos) {
+        AtomicLong bucket = bucket(key, nowNanos);
+        for (;;) {
+            final long fullAt = bucket.get();
+            final long nextFullAt = (fullAt - nowNanos > 0 ? fullAt : nowNanos) + intervalNanos;
+            final long excess = nextFullAt - nowNanos - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(fullAt, nextFullAt)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucket(final String key, final long nowNanos) {
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket == null) {
+            if (stripe.size() >= maxKeysPerStripe) {
+                return overflow;
+            }
+            AtomicLong created = new AtomicLong(nowNanos);
+            bucket = stripe.putIfAbsent(key, created);
+            if (bucket == null) {
+                bucket = created;
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Evicts the buckets which have been full for at least the idle time.
+     * A token taken from a bucket while it is being evicted is lost, which can only let a single extra request of an idle key through.
+     *
+     * @return - number of buckets evicted
+     */
+    public int evictIdle(final long nowNanos, final long idleNanos) {
+        int evicted = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            Iterator<AtomicLong> iterator = stripe.values().iterator();
+            while (iterator.hasNext()) {
+                if (nowNanos - iterator.next().get() >= idleNanos) {
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    //Mixes the high bits of the hash into the low bits which select the stripe
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
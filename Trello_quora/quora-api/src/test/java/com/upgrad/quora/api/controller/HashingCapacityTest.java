@@ -0,0 +1,69 @@
+package com.upgrad.quora.api.controller;
+
+
+import com.upgrad.quora.service.business.PasswordHashingExecutor;
+import com.upgrad.quora.service.exception.HashingCapacityExceededException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//The hashing pool is replaced by a mock which is always full, so that every sign up and sign in is rejected by it
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "quora.auth.jwt.secret=hashing-capacity-test-secret-hashing-capacity-test-secret-0123456789",
+        "quora.rate-limit.enabled=false",
+        "quora.user-auth.partitions.enabled=false"})
+@AutoConfigureMockMvc
+public class HashingCapacityTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Before
+    public void fillHashingQueue() throws HashingCapacityExceededException {
+        HashingCapacityExceededException full = new HashingCapacityExceededException("GEN-002", "Server is busy, please retry after 2 second(s)", 2);
+        when(passwordHashingExecutor.encrypt(anyString())).thenThrow(full);
+        when(passwordHashingExecutor.matches(anyString(), anyString(), anyString())).thenThrow(full);
+    }
+
+    //This test case passes when a sign up is answered with 503 and a Retry-After header while the hashing queue is full.
+    @Test
+    public void signupWhenHashingQueueIsFull() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/user/signup?firstName=a&lastName=a&userName=hashing_capacity_username&emailAddress=hashing_capacity_email&password=a&country=a&aboutMe=a&dob=a&contactNumber=a")
+                .contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("GEN-002"));
+    }
+
+    //This test case passes when a sign in is answered with 503 and a Retry-After header while the hashing queue is full.
+    @Test
+    public void signinWhenHashingQueueIsFull() throws Exception {
+        String credentials = Base64.getEncoder().encodeToString("database_username:database_password".getBytes(StandardCharsets.UTF_8));
+        mvc.perform(MockMvcRequestBuilders.post("/user/signin").header("authorization", "Basic " + credentials))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("GEN-002"));
+    }
+}
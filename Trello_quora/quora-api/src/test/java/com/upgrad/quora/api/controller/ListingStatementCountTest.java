@@ -0,0 +1,127 @@
+package com.upgrad.quora.api.controller;
+
+
+import com.upgrad.quora.api.interceptor.SqlBudgetInterceptor;
+import com.upgrad.quora.service.business.QuestionBusinessService;
+import com.upgrad.quora.service.common.QuestionPage;
+import com.upgrad.quora.service.dao.QuestionRowHandler;
+import com.upgrad.quora.service.datasource.SqlStatementBudget;
+import com.upgrad.quora.service.datasource.SqlStatistics;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.sql.Timestamp;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//The access tokens of quora_test.sql are not JWT tokens, so the JWT verification is turned off and only USER_AUTH is checked
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "quora.auth.jwt.verify=false",
+        "quora.auth.jwt.secret=statement-count-test-secret-statement-count-test-secret-0123456789",
+        "quora.rate-limit.enabled=false",
+        "quora.user-auth.partitions.enabled=false"})
+@AutoConfigureMockMvc
+public class ListingStatementCountTest {
+
+    //Rows added by the tests, far above the ids of quora_test.sql
+    private static final int FIRST_ID = 900000;
+
+    private static final int ADDED_ROWS = 30;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlStatementBudget sqlStatementBudget;
+
+    @Autowired
+    private QuestionBusinessService questionBusinessService;
+
+    @After
+    public void removeAddedRows() {
+        jdbcTemplate.update("delete from answer where id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from question where id >= ?", FIRST_ID);
+    }
+
+    //This test case passes when listing the answers to a question issues as many statements for many answers as for a single answer.
+    @Test
+    public void answersToQuestionIssueConstantStatements() throws Exception {
+        //The first request warms up the caches of the application, only the requests after it are compared
+        answerListingStatements(1);
+        int singleAnswerStatements = answerListingStatements(1);
+
+        for (int i = 0; i < ADDED_ROWS; i++) {
+            jdbcTemplate.update("insert into answer(id,uuid,ans,date,user_id,question_id) values (?,?,?,?,1026,1024)",
+                    FIRST_ID + i, "statement_count_answer_uuid" + i, "statement_count_answer" + i, new Timestamp(System.currentTimeMillis()));
+        }
+
+        assertEquals(singleAnswerStatements, answerListingStatements(1 + ADDED_ROWS));
+    }
+
+    //This test case passes when a page of questions issues as many statements for a large page as for a page of one question.
+    @Test
+    public void questionPagesIssueConstantStatements() throws Exception {
+        for (int i = 0; i < ADDED_ROWS; i++) {
+            jdbcTemplate.update("insert into question(id,uuid,content,date,user_id,answer_count) values (?,?,?,?,1026,0)",
+                    FIRST_ID + i, "statement_count_question_uuid" + i, "statement_count_question" + i, new Timestamp(System.currentTimeMillis()));
+        }
+
+        questionPageStatements(1);
+        assertEquals(questionPageStatements(1), questionPageStatements(ADDED_ROWS));
+        assertEquals(streamStatements(1), streamStatements(ADDED_ROWS));
+    }
+
+    private int answerListingStatements(final int expectedAnswers) throws Exception {
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(expectedAnswers)))
+                .andReturn();
+        return statistics(result).getStatements();
+    }
+
+    //Statements of the request thread, the page itself is streamed on another thread and counted by streamStatements
+    private int questionPageStatements(final int limit) throws Exception {
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get("/question/all").param("limit", String.valueOf(limit))
+                .header("authorization", "database_accesstoken"))
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(limit)));
+        return statistics(result).getStatements();
+    }
+
+    private int streamStatements(final int limit) throws Exception {
+        QuestionPage page = questionBusinessService.getQuestionPage(null, limit);
+        sqlStatementBudget.start("stream of GET /question/all");
+        questionBusinessService.streamQuestions(page, new QuestionRowHandler() {
+            @Override
+            public void handle(final String uuid, final String content, final int answerCount) {
+            }
+        });
+        return sqlStatementBudget.stop().getStatements();
+    }
+
+    private SqlStatistics statistics(final MvcResult result) {
+        SqlStatistics statistics = (SqlStatistics) result.getRequest().getAttribute(SqlBudgetInterceptor.STATISTICS_ATTRIBUTE);
+        assertNotNull(statistics);
+        return statistics;
+    }
+}
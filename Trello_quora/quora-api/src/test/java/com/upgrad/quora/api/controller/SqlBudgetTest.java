@@ -0,0 +1,89 @@
+package com.upgrad.quora.api.controller;
+
+
+import com.upgrad.quora.api.interceptor.SqlBudgetInterceptor;
+import com.upgrad.quora.service.datasource.SqlStatistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//The budgets are the statements the endpoints issue today, a request over its budget fails with SQL-001 and the test with it
+//The access tokens of quora_test.sql are not JWT tokens, so the JWT verification is turned off and only USER_AUTH is checked
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "quora.sql.budget.fail=true",
+        "quora.sql.budget.endpoints=GET /userprofile/{userId}=2, GET /answer/all/{questionId}=3, GET /question/all=2",
+        "quora.auth.jwt.verify=false",
+        "quora.auth.jwt.secret=sql-budget-test-secret-sql-budget-test-secret-sql-budget-0123456789",
+        "quora.rate-limit.enabled=false",
+        "quora.user-auth.partitions.enabled=false"})
+@AutoConfigureMockMvc
+public class SqlBudgetTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    //This test case passes when the profile of a user is read within the statement budget of the endpoint.
+    @Test
+    public void userProfileWithinBudget() throws Exception {
+        assertWithinBudget(MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "database_accesstoken"));
+    }
+
+    //This test case passes when the revalidation of the profile of a user with its ETag stays within the statement budget of the endpoint.
+    @Test
+    public void userProfileRevalidationWithinBudget() throws Exception {
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        result = mvc.perform(MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "database_accesstoken")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertNotOverBudget(result);
+    }
+
+    //This test case passes when the answers to a question are listed within the statement budget of the endpoint.
+    @Test
+    public void answersToQuestionWithinBudget() throws Exception {
+        assertWithinBudget(MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken"));
+    }
+
+    //This test case passes when a page of questions is resolved within the statement budget of the endpoint.
+    @Test
+    public void questionPageWithinBudget() throws Exception {
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get("/question/all").param("limit", "10")
+                .header("authorization", "database_accesstoken"))
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        assertNotOverBudget(result);
+    }
+
+    private void assertWithinBudget(final MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotOverBudget(result);
+    }
+
+    private void assertNotOverBudget(final MvcResult result) {
+        SqlStatistics statistics = (SqlStatistics) result.getRequest().getAttribute(SqlBudgetInterceptor.STATISTICS_ATTRIBUTE);
+        assertNotNull(statistics);
+        assertFalse(statistics.toString(), statistics.isOverBudget());
+    }
+}
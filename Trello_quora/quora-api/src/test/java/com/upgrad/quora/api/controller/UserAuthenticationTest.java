@@ -0,0 +1,131 @@
+package com.upgrad.quora.api.controller;
+
+
+import com.jayway.jsonpath.JsonPath;
+import com.upgrad.quora.service.business.PasswordCryptographyProvider;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "quora.auth.jwt.secret=user-authentication-test-secret-user-authentication-test-secret-0123",
+        "quora.rate-limit.enabled=false",
+        "quora.user-auth.partitions.enabled=false"})
+@AutoConfigureMockMvc
+public class UserAuthenticationTest {
+
+    private static final String USER_NAME = "authentication_test_username";
+
+    private static final String PASSWORD = "authentication_test_password";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    //The access tokens of the user go with it, USER_AUTH references USERS with ON DELETE CASCADE
+    @After
+    public void removeSignedUpUser() {
+        jdbcTemplate.update("delete from users where username = ?", USER_NAME);
+    }
+
+    //This test case passes when a signed up user signs in with their password and receives an access token.
+    @Test
+    public void signupAndSignin() throws Exception {
+        signup();
+        mvc.perform(MockMvcRequestBuilders.post("/user/signin").header("authorization", basic(USER_NAME, PASSWORD)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("access-token", notNullValue()))
+                .andExpect(MockMvcResultMatchers.jsonPath("message").value("SIGNED IN SUCCESSFULLY"));
+    }
+
+    //This test case passes when you signup with a username that already exists in the database.
+    @Test
+    public void signupWithRepeatedUserName() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/user/signup?firstName=a&lastName=a&userName=database_username&emailAddress=a&password=a&country=a&aboutMe=a&dob=a&contactNumber=a")
+                .contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isConflict())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("SGR-001"));
+    }
+
+    //This test case passes when a sign in with a wrong password is rejected.
+    @Test
+    public void signinWithWrongPassword() throws Exception {
+        signup();
+        mvc.perform(MockMvcRequestBuilders.post("/user/signin").header("authorization", basic(USER_NAME, "wrong_password")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATH-002"));
+    }
+
+    //This test case passes when a legacy hash is replaced at sign in without changing the version, and with it the ETag, of the user.
+    @Test
+    public void signinRehashesLegacyPasswordWithoutNewVersion() throws Exception {
+        signup();
+        String salt = jdbcTemplate.queryForObject("select salt from users where username = ?", String.class, USER_NAME);
+        String legacyHash = PasswordCryptographyProvider.encrypt(PASSWORD, salt);
+        jdbcTemplate.update("update users set password = ? where username = ?", legacyHash, USER_NAME);
+        int version = jdbcTemplate.queryForObject("select version from users where username = ?", Integer.class, USER_NAME);
+
+        mvc.perform(MockMvcRequestBuilders.post("/user/signin").header("authorization", basic(USER_NAME, PASSWORD)))
+                .andExpect(status().isOk());
+
+        assertNotEquals(legacyHash, jdbcTemplate.queryForObject("select password from users where username = ?", String.class, USER_NAME));
+        assertEquals(version, (int) jdbcTemplate.queryForObject("select version from users where username = ?", Integer.class, USER_NAME));
+    }
+
+    //This test case passes when an access token is rejected right after it has been signed out, even though it was cached before.
+    @Test
+    public void signedOutTokenIsRejected() throws Exception {
+        signup();
+        MvcResult signin = mvc.perform(MockMvcRequestBuilders.post("/user/signin").header("authorization", basic(USER_NAME, PASSWORD)))
+                .andExpect(status().isOk())
+                .andReturn();
+        String accessToken = signin.getResponse().getHeader("access-token");
+        String userUuid = JsonPath.read(signin.getResponse().getContentAsString(), "id");
+
+        mvc.perform(MockMvcRequestBuilders.get("/userprofile/" + userUuid).header("authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        mvc.perform(MockMvcRequestBuilders.post("/user/signout").header("authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("id").value(userUuid))
+                .andExpect(MockMvcResultMatchers.jsonPath("message").value("SIGNED OUT SUCCESSFULLY"));
+
+        mvc.perform(MockMvcRequestBuilders.get("/userprofile/" + userUuid).header("authorization", "Bearer " + accessToken))
+                .andExpect(status().isUnauthorized())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
+    }
+
+    private void signup() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/user/signup?firstName=a&lastName=a&userName=" + USER_NAME
+                + "&emailAddress=authentication_test_email&password=" + PASSWORD + "&country=a&aboutMe=a&dob=a&contactNumber=a")
+                .contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("status").value("USER SUCCESSFULLY REGISTERED"));
+    }
+
+    private static String basic(final String userName, final String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((userName + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
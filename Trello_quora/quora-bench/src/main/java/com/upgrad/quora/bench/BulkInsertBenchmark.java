@@ -0,0 +1,122 @@
+package com.upgrad.quora.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to insert a bulk of questions row by row, each insert returning its generated id, next to JDBC batches whose ids
+ * are allocated up front from a sequence incremented by the batch size, the way Hibernate allocates the ids of the entities.
+ * Rows are written to the QUORA_BENCH schema of the database named by the system properties quora.bench.url,
+ * quora.bench.user and quora.bench.password, and every invocation is rolled back.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String INSERT_RETURNING_ID = "INSERT INTO QUORA_BENCH.BULK_QUESTION(uuid, content, date) VALUES (?, ?, now()) RETURNING id";
+
+    private static final String INSERT_WITH_ID = "INSERT INTO QUORA_BENCH.BULK_QUESTION(id, uuid, content, date) VALUES (?, ?, ?, now())";
+
+    private static final String NEXT_ID_BLOCK = "SELECT nextval('QUORA_BENCH.BULK_QUESTION_POOLED_SEQ')";
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean reWriteBatchedInserts;
+
+    private Connection connection;
+
+    private String[] contents;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", System.getProperty("quora.bench.user", "postgres"));
+        properties.setProperty("password", System.getProperty("quora.bench.password", "password"));
+        properties.setProperty("reWriteBatchedInserts", String.valueOf(reWriteBatchedInserts));
+        connection = DriverManager.getConnection(System.getProperty("quora.bench.url", "jdbc:postgresql://localhost:5432/quora"), properties);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS QUORA_BENCH");
+            statement.execute("CREATE SEQUENCE IF NOT EXISTS QUORA_BENCH.BULK_QUESTION_POOLED_SEQ INCREMENT BY " + ALLOCATION_SIZE);
+            statement.execute("CREATE TABLE IF NOT EXISTS QUORA_BENCH.BULK_QUESTION(id BIGSERIAL PRIMARY KEY, uuid VARCHAR(200) NOT NULL, " +
+                    "content VARCHAR(500) NOT NULL, date TIMESTAMP NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+
+        contents = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            contents[i] = "How does question " + i + " of the bulk insert benchmark get its id?";
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() throws SQLException {
+        connection.rollback();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long rowByRow() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_RETURNING_ID)) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, UUID.randomUUID().toString());
+                insert.setString(2, contents[i]);
+                try (ResultSet resultSet = insert.executeQuery()) {
+                    resultSet.next();
+                    lastId = resultSet.getLong(1);
+                }
+            }
+        }
+        return lastId;
+    }
+
+    @Benchmark
+    public long batched() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement nextIdBlock = connection.prepareStatement(NEXT_ID_BLOCK);
+             PreparedStatement insert = connection.prepareStatement(INSERT_WITH_ID)) {
+            long nextId = 0;
+            for (int i = 0; i < rows; i++) {
+                //One sequence call hands out the ids of a whole batch
+                if (i % ALLOCATION_SIZE == 0) {
+                    try (ResultSet resultSet = nextIdBlock.executeQuery()) {
+                        resultSet.next();
+                        nextId = resultSet.getLong(1);
+                    }
+                }
+                lastId = nextId++;
+                insert.setLong(1, lastId);
+                insert.setString(2, UUID.randomUUID().toString());
+                insert.setString(3, contents[i]);
+                insert.addBatch();
+                if ((i + 1) % ALLOCATION_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        return lastId;
+    }
+}
@@ -0,0 +1,146 @@
+package com.upgrad.quora.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load against a running quora-api, for comparing the platform thread and the virtual thread execution modes.
+ * Start the application once with quora.threads.virtual=false and once with quora.threads.virtual=true, and run
+ * "java -cp quora-bench/target/benchmarks.jar com.upgrad.quora.bench.HttpLoadComparison url concurrency seconds [authorization]"
+ * against each, with a concurrency above the Tomcat worker pool size (200) to see the difference.
+ */
+public class HttpLoadComparison {
+
+    //Latencies are counted per millisecond up to this bound, slower responses fall into the last bucket
+    private static final int MAX_LATENCY_MILLIS = 10000;
+
+    public static void main(String[] args) throws InterruptedException {
+        final URL url = toUrl(args[0]);
+        final int concurrency = Integer.parseInt(args[1]);
+        final long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[2]));
+        final String authorization = args.length > 3 ? args[3] : null;
+
+        //Keep a connection alive per client, the default of 5 would reconnect for most requests
+        System.setProperty("http.maxConnections", String.valueOf(concurrency));
+
+        final List<Client> clients = new ArrayList<Client>(concurrency);
+        final CountDownLatch done = new CountDownLatch(concurrency);
+        final long end = System.nanoTime() + durationNanos;
+        for (int i = 0; i < concurrency; i++) {
+            final Client client = new Client(url, authorization, end, done);
+            clients.add(client);
+            Thread thread = new Thread(client, "load-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        long[] latencies = new long[MAX_LATENCY_MILLIS + 1];
+        long responses = 0;
+        long errors = 0;
+        for (Client client : clients) {
+            responses += client.responses;
+            errors += client.errors;
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] += client.latencies[i];
+            }
+        }
+        final double seconds = durationNanos / 1e9;
+        System.out.printf("%s, %d clients, %.0f s%n", url, concurrency, seconds);
+        System.out.printf("throughput %.1f req/s, errors %d%n", responses / seconds, errors);
+        System.out.printf("latency p50 %d ms, p99 %d ms, p99.9 %d ms%n",
+                percentile(latencies, responses, 0.5), percentile(latencies, responses, 0.99), percentile(latencies, responses, 0.999));
+    }
+
+    private static long percentile(final long[] latencies, final long count, final double percentile) {
+        final long rank = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < latencies.length; i++) {
+            seen += latencies[i];
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return MAX_LATENCY_MILLIS;
+    }
+
+    private static URL toUrl(final String url) {
+        try {
+            return new URL(url);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid url " + url, e);
+        }
+    }
+
+    private static final class Client implements Runnable {
+
+        private final URL url;
+
+        private final String authorization;
+
+        private final long end;
+
+        private final CountDownLatch done;
+
+        private final long[] latencies = new long[MAX_LATENCY_MILLIS + 1];
+
+        private final byte[] buffer = new byte[8192];
+
+        private long responses;
+
+        private long errors;
+
+        private Client(final URL url, final String authorization, final long end, final CountDownLatch done) {
+            this.url = url;
+            this.authorization = authorization;
+            this.end = end;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (System.nanoTime() < end) {
+                    final long start = System.nanoTime();
+                    if (!request()) {
+                        errors++;
+                    }
+                    responses++;
+                    latencies[(int) Math.min(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), MAX_LATENCY_MILLIS)]++;
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+
+        //Reads the body to the end, so that the keep-alive connection is reused by the next request
+        private boolean request() {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                if (authorization != null) {
+                    connection.setRequestProperty("authorization", authorization);
+                }
+                final int status = connection.getResponseCode();
+                InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+                if (body != null) {
+                    try {
+                        while (body.read(buffer) >= 0) {
+                            //discard
+                        }
+                    } finally {
+                        body.close();
+                    }
+                }
+                return status < 400;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.upgrad.quora.bench;
+
+import com.upgrad.quora.service.business.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token generation of sign in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private String userUuid;
+
+    @Setup
+    public void setup() {
+        jwtTokenProvider = new JwtTokenProvider("quora-benchmark-secret-quora-benchmark-secret-quora-benchmark-secret");
+        userUuid = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        final ZonedDateTime now = ZonedDateTime.now();
+        return jwtTokenProvider.generateToken(userUuid, now, now.plusHours(8));
+    }
+}
@@ -0,0 +1,74 @@
+package com.upgrad.quora.bench;
+
+import com.upgrad.quora.service.metrics.ServiceTimingAspect;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the service timers add to a call, against the same call untimed.
+ * The timed call goes through the steps of ServiceTimingAspect: the cached timer lookup by method, two clock reads and
+ * the update of a timer publishing a percentile histogram into the Prometheus registry.
+ * The call itself is as cheap as a token cache hit, so the difference is an upper bound of the overhead on the hot path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private PrometheusMeterRegistry registry;
+
+    private Method method;
+
+    private final ConcurrentMap<Method, Timer[]> timers = new ConcurrentHashMap<Method, Timer[]>();
+
+    private String accessToken;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        method = String.class.getMethod("hashCode");
+        timers.put(method, new Timer[]{
+                Timer.builder(ServiceTimingAspect.METRIC_NAME).tag("outcome", "success").publishPercentileHistogram().register(registry),
+                Timer.builder(ServiceTimingAspect.METRIC_NAME).tag("outcome", "error").publishPercentileHistogram().register(registry)});
+        accessToken = "eyJhbGciOiJIUzI1NiJ9.benchmark.access-token";
+    }
+
+    @TearDown
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Benchmark
+    public int untimed() {
+        return call();
+    }
+
+    @Benchmark
+    public int timed() {
+        final Timer[] methodTimers = timers.get(method);
+        final long start = System.nanoTime();
+        final int result = call();
+        methodTimers[0].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    @Benchmark
+    public String scrape() {
+        return registry.scrape();
+    }
+
+    private int call() {
+        //A fresh string, so the hash is computed on every call rather than read from the cached field
+        return new String(accessToken).hashCode();
+    }
+}
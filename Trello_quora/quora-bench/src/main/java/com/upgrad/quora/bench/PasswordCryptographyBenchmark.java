@@ -0,0 +1,52 @@
+package com.upgrad.quora.bench;
+
+import com.upgrad.quora.service.business.PasswordCryptographyProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password hashing of sign up (salt generation and hashing) and of sign in (re-hashing with a stored salt), and the hex encoding of the hash.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordCryptographyBenchmark {
+
+    private PasswordCryptographyProvider passwordCryptographyProvider;
+
+    private String password;
+
+    private String salt;
+
+    private byte[] hash;
+
+    @Setup
+    public void setup() {
+        passwordCryptographyProvider = new PasswordCryptographyProvider();
+        password = "quora-benchmark-password";
+        salt = passwordCryptographyProvider.encrypt(password)[0];
+        hash = new byte[64];
+        ThreadLocalRandom.current().nextBytes(hash);
+    }
+
+    @Benchmark
+    public String[] encryptWithNewSalt() {
+        return passwordCryptographyProvider.encrypt(password);
+    }
+
+    @Benchmark
+    public String encryptWithStoredSalt() {
+        return PasswordCryptographyProvider.encrypt(password, salt);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String bytesToHex() {
+        return PasswordCryptographyProvider.bytesToHex(hash);
+    }
+}
@@ -0,0 +1,52 @@
+package com.upgrad.quora.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.ErrorResponse;
+import com.upgrad.quora.api.model.UserDetailsResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the generated response models written by the user profile endpoint and by every error response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private UserDetailsResponse userDetailsResponse;
+
+    private ErrorResponse errorResponse;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        userDetailsResponse = new UserDetailsResponse()
+                .firstName("database_firstname")
+                .lastName("database_lastname")
+                .emailAddress("database_email")
+                .userName("database_username")
+                .aboutMe("database_aboutme")
+                .country("database_country")
+                .contactNumber("database_contactnumber")
+                .dob("database_dob");
+        errorResponse = new ErrorResponse().code("ATHR-001").message("User has not signed in");
+    }
+
+    @Benchmark
+    public byte[] userDetailsResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userDetailsResponse);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(errorResponse);
+    }
+}
@@ -0,0 +1,119 @@
+package com.upgrad.quora.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the first page of a question search, ranked with the GIN indexed tsvector next to a naive ILIKE scan.
+ * The synthetic questions are generated once into the QUORA_BENCH schema of the database named by the system properties
+ * quora.bench.url, quora.bench.user and quora.bench.password, so the application tables are never touched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchQueryBenchmark {
+
+    private static final String WORDS = "'java','spring','hibernate','postgres','index','query','thread','memory','cache','latency'," +
+            "'python','kotlin','docker','kubernetes','network','socket','stream','buffer','lambda','closure'," +
+            "'garbage','collector','heap','stack','compiler','bytecode','reflection','annotation','transaction','isolation'";
+
+    private static final String TSVECTOR_SEARCH = "select q.id, q.uuid, q.content, ts_rank_cd(q.content_tsv, query) as score " +
+            "from plainto_tsquery('english', ?) query, QUORA_BENCH.QUESTION q where q.content_tsv @@ query order by score desc, q.id desc limit 20";
+
+    private static final String ILIKE_SEARCH = "select q.id, q.uuid, q.content from QUORA_BENCH.QUESTION q where q.content ilike all (?) order by q.id desc limit 20";
+
+    @Param({"100000", "1000000"})
+    public int questions;
+
+    @Param({"transaction isolation"})
+    public String query;
+
+    @State(Scope.Thread)
+    public static class Session {
+
+        private Connection connection;
+
+        private PreparedStatement tsvectorSearch;
+
+        private PreparedStatement ilikeSearch;
+
+        @Setup
+        public void open() throws SQLException {
+            connection = connect();
+            tsvectorSearch = connection.prepareStatement(TSVECTOR_SEARCH);
+            ilikeSearch = connection.prepareStatement(ILIKE_SEARCH);
+        }
+
+        @TearDown
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void populate() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS QUORA_BENCH");
+            statement.execute("CREATE TABLE IF NOT EXISTS QUORA_BENCH.QUESTION(id SERIAL PRIMARY KEY, uuid VARCHAR(200) NOT NULL, content VARCHAR(500) NOT NULL, " +
+                    "content_tsv TSVECTOR GENERATED ALWAYS AS (to_tsvector('english', content)) STORED)");
+            statement.execute("CREATE INDEX IF NOT EXISTS QUESTION_CONTENT_TSV_IDX ON QUORA_BENCH.QUESTION USING GIN(content_tsv)");
+
+            long existing;
+            try (ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM QUORA_BENCH.QUESTION")) {
+                resultSet.next();
+                existing = resultSet.getLong(1);
+            }
+            if (existing != questions) {
+                statement.execute("TRUNCATE QUORA_BENCH.QUESTION RESTART IDENTITY");
+                //Every question is twelve words drawn at random from a small vocabulary, referencing g keeps the sub-select correlated per row
+                statement.execute("INSERT INTO QUORA_BENCH.QUESTION(uuid, content) SELECT md5(g::text), " +
+                        "array_to_string(ARRAY(SELECT (ARRAY[" + WORDS + "])[1 + floor(random() * 30)::int] FROM generate_series(1, 12) WHERE g > 0), ' ') " +
+                        "FROM generate_series(1, " + questions + ") g");
+                statement.execute("VACUUM ANALYZE QUORA_BENCH.QUESTION");
+            }
+        }
+    }
+
+    @Benchmark
+    public int tsvectorSearch(final Session session) throws SQLException {
+        session.tsvectorSearch.setString(1, query);
+        return drain(session.tsvectorSearch);
+    }
+
+    @Benchmark
+    public int ilikeSearch(final Session session) throws SQLException {
+        //Every word has to appear somewhere in the content, as with the tsquery
+        final String[] words = query.split(" ");
+        final String[] patterns = new String[words.length];
+        for (int i = 0; i < words.length; i++) {
+            patterns[i] = "%" + words[i] + "%";
+        }
+        session.ilikeSearch.setArray(1, session.connection.createArrayOf("text", patterns));
+        return drain(session.ilikeSearch);
+    }
+
+    private static int drain(final PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(System.getProperty("quora.bench.url", "jdbc:postgresql://localhost:5432/quora"),
+                System.getProperty("quora.bench.user", "postgres"), System.getProperty("quora.bench.password", "password"));
+    }
+}
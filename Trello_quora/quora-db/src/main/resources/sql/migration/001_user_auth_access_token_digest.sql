@@ -0,0 +1,10 @@
+--Migrates an existing USER_AUTH table to digest indexed access token lookups
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+ALTER TABLE USER_AUTH ADD COLUMN IF NOT EXISTS ACCESS_TOKEN_DIGEST CHAR(64) NULL;
+
+UPDATE USER_AUTH SET ACCESS_TOKEN_DIGEST = encode(digest(ACCESS_TOKEN, 'sha256'), 'hex') WHERE ACCESS_TOKEN_DIGEST IS NULL;
+
+ALTER TABLE USER_AUTH ALTER COLUMN ACCESS_TOKEN_DIGEST SET NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS USER_AUTH_ACCESS_TOKEN_DIGEST_IDX ON USER_AUTH(ACCESS_TOKEN_DIGEST);
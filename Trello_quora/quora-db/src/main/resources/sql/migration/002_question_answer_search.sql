@@ -0,0 +1,8 @@
+--Adds the generated tsvector columns and GIN indexes backing the full text search of questions and answers (PostgreSQL 12+)
+ALTER TABLE QUESTION ADD COLUMN IF NOT EXISTS content_tsv TSVECTOR GENERATED ALWAYS AS (to_tsvector('english', content)) STORED;
+
+CREATE INDEX IF NOT EXISTS QUESTION_CONTENT_TSV_IDX ON QUESTION USING GIN(content_tsv);
+
+ALTER TABLE ANSWER ADD COLUMN IF NOT EXISTS ans_tsv TSVECTOR GENERATED ALWAYS AS (to_tsvector('english', ans)) STORED;
+
+CREATE INDEX IF NOT EXISTS ANSWER_ANS_TSV_IDX ON ANSWER USING GIN(ans_tsv);
@@ -0,0 +1,4 @@
+--Adds the denormalized count of answers to every question and fills it from the existing answers
+ALTER TABLE QUESTION ADD COLUMN IF NOT EXISTS answer_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE QUESTION q SET answer_count = c.answers FROM (SELECT question_id, count(*) AS answers FROM ANSWER GROUP BY question_id) c WHERE q.id = c.question_id AND q.answer_count <> c.answers;
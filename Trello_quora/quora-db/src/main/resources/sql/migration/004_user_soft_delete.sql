@@ -0,0 +1,10 @@
+--Adds the soft delete marker of users and the indexes the background purge of deleted users reads its batches with
+ALTER TABLE USERS ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP NULL;
+
+CREATE INDEX IF NOT EXISTS USERS_DELETED_AT_IDX ON USERS(deleted_at) WHERE deleted_at IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS USER_AUTH_USER_ID_IDX ON USER_AUTH(USER_ID);
+
+CREATE INDEX IF NOT EXISTS QUESTION_USER_ID_IDX ON QUESTION(user_id);
+
+CREATE INDEX IF NOT EXISTS ANSWER_USER_ID_IDX ON ANSWER(user_id);
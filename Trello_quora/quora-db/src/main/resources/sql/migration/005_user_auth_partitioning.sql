@@ -0,0 +1,49 @@
+--Converts USER_AUTH into a table range partitioned by EXPIRES_AT (PostgreSQL 11+)
+--The unexpired rows land in the default partition, quora-service moves them into daily partitions as it creates them
+--The conversion is skipped once USER_AUTH is partitioned, so that the migration can be run again like the others
+--The block is quoted with single quotes instead of $$ so that sql-maven-plugin does not split it on the semicolons inside
+--A unique index of a partitioned table has to include the partition key, so the digest is only unique together with EXPIRES_AT:
+--EXPIRES_AT is the expiry signed into the token the digest is taken of, so one token never has two expiries and the digest stays unique
+--The tokens which expired before the day of the migration are moved into a partition of their own, named after the day before it,
+--so that quora-service drops them as a whole like any other expired daily partition instead of deleting them row by row
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = ''user_auth'') THEN
+        ALTER TABLE USER_AUTH RENAME TO USER_AUTH_UNPARTITIONED;
+
+        DROP INDEX IF EXISTS USER_AUTH_ACCESS_TOKEN_DIGEST_IDX;
+
+        DROP INDEX IF EXISTS USER_AUTH_USER_ID_IDX;
+
+        CREATE TABLE USER_AUTH(
+            ID BIGINT NOT NULL DEFAULT nextval(''user_auth_id_seq''),
+            uuid VARCHAR(200) NOT NULL,
+            USER_ID INTEGER NOT NULL,
+            ACCESS_TOKEN VARCHAR(500) NOT NULL,
+            ACCESS_TOKEN_DIGEST CHAR(64) NOT NULL,
+            EXPIRES_AT TIMESTAMP NOT NULL,
+            LOGIN_AT TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+            LOGOUT_AT TIMESTAMP NULL,
+            PRIMARY KEY (ID, EXPIRES_AT)
+        ) PARTITION BY RANGE (EXPIRES_AT);
+
+        CREATE TABLE USER_AUTH_DEFAULT PARTITION OF USER_AUTH DEFAULT;
+
+        EXECUTE format(''CREATE TABLE %I PARTITION OF USER_AUTH FOR VALUES FROM (MINVALUE) TO (%L)'',
+                ''user_auth_p'' || to_char(current_date - 1, ''YYYYMMDD''), current_date::timestamp);
+
+        ALTER TABLE USER_AUTH ADD CONSTRAINT FK_USER_AUTH_USER_ID FOREIGN KEY(USER_ID) REFERENCES USERS(ID) ON DELETE CASCADE ;
+
+        CREATE UNIQUE INDEX USER_AUTH_ACCESS_TOKEN_DIGEST_IDX ON USER_AUTH(ACCESS_TOKEN_DIGEST, EXPIRES_AT);
+
+        CREATE INDEX USER_AUTH_USER_ID_IDX ON USER_AUTH(USER_ID);
+
+        INSERT INTO USER_AUTH(ID, uuid, USER_ID, ACCESS_TOKEN, ACCESS_TOKEN_DIGEST, EXPIRES_AT, LOGIN_AT, LOGOUT_AT)
+        SELECT ID, uuid, USER_ID, ACCESS_TOKEN, ACCESS_TOKEN_DIGEST, EXPIRES_AT, LOGIN_AT, LOGOUT_AT FROM USER_AUTH_UNPARTITIONED;
+
+        ALTER SEQUENCE user_auth_id_seq OWNED BY USER_AUTH.ID;
+
+        DROP TABLE USER_AUTH_UNPARTITIONED;
+    END IF;
+END
+';
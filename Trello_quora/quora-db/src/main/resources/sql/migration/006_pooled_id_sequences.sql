@@ -0,0 +1,17 @@
+--Steps the id sequences by the allocation size of the Hibernate pooled sequence generators
+--Every sequence is moved past the largest id in use, so that no allocated block overlaps an existing row
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+
+SELECT setval('users_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM USERS));
+
+ALTER SEQUENCE user_auth_id_seq INCREMENT BY 50;
+
+SELECT setval('user_auth_id_seq', (SELECT COALESCE(MAX(ID), 0) + 50 FROM USER_AUTH));
+
+ALTER SEQUENCE question_id_seq INCREMENT BY 50;
+
+SELECT setval('question_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM QUESTION));
+
+ALTER SEQUENCE answer_id_seq INCREMENT BY 50;
+
+SELECT setval('answer_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM ANSWER));
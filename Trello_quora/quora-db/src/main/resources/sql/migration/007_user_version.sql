@@ -0,0 +1,2 @@
+--Adds the optimistic lock version of users, every update of a user increments it and the profile ETag is derived from it
+ALTER TABLE USERS ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,6 @@
+--Adds the queue of the background purges of deleted users, shared by every node, and queues the users already marked as deleted
+CREATE TABLE IF NOT EXISTS USER_PURGE(user_uuid VARCHAR(200) NOT NULL, user_id INTEGER NOT NULL, phase VARCHAR(30) NOT NULL, answers_purged BIGINT NOT NULL DEFAULT 0, questions_purged BIGINT NOT NULL DEFAULT 0, auth_tokens_purged BIGINT NOT NULL DEFAULT 0, attempts INTEGER NOT NULL DEFAULT 0, next_attempt_at TIMESTAMP NOT NULL, claimed_until TIMESTAMP NULL, updated_at TIMESTAMP NOT NULL, PRIMARY KEY (user_uuid));
+
+CREATE INDEX IF NOT EXISTS USER_PURGE_NEXT_ATTEMPT_AT_IDX ON USER_PURGE(next_attempt_at) WHERE phase <> 'COMPLETED';
+
+INSERT INTO USER_PURGE(user_uuid, user_id, phase, next_attempt_at, updated_at) SELECT uuid, id, 'PENDING', deleted_at, deleted_at FROM USERS WHERE deleted_at IS NOT NULL ON CONFLICT (user_uuid) DO NOTHING;
@@ -1,30 +1,83 @@
 
 --USERS table is created to store the details of all the users
 DROP TABLE IF EXISTS USERS CASCADE;
-CREATE TABLE IF NOT EXISTS USERS(id SERIAL, uuid VARCHAR(200) NOT NULL ,firstName VARCHAR(30) NOT NULL , lastName VARCHAR(30) NOT NULL ,userName VARCHAR(30) UNIQUE NOT NULL,  email VARCHAR(50) UNIQUE NOT NULL ,password VARCHAR(255) NOT NULL, salt VARCHAR(200) NOT NULL ,country VARCHAR(30) ,aboutMe VARCHAR(50),dob VARCHAR(30), role VARCHAR(30),contactNumber VARCHAR(30), PRIMARY KEY (id));
+CREATE TABLE IF NOT EXISTS USERS(id SERIAL, uuid VARCHAR(200) NOT NULL ,firstName VARCHAR(30) NOT NULL , lastName VARCHAR(30) NOT NULL ,userName VARCHAR(30) UNIQUE NOT NULL,  email VARCHAR(50) UNIQUE NOT NULL ,password VARCHAR(255) NOT NULL, salt VARCHAR(200) NOT NULL ,country VARCHAR(30) ,aboutMe VARCHAR(50),dob VARCHAR(30), role VARCHAR(30),contactNumber VARCHAR(30), deleted_at TIMESTAMP NULL, version INTEGER NOT NULL DEFAULT 0, PRIMARY KEY (id));
+
+--Ids are allocated by Hibernate in blocks of 50 from the sequences, so that inserts can be sent in JDBC batches
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+
+--Users marked as deleted and waiting for the background purge of their rows
+CREATE INDEX IF NOT EXISTS USERS_DELETED_AT_IDX ON USERS(deleted_at) WHERE deleted_at IS NOT NULL;
+
 INSERT INTO users(
 	id, uuid, firstname, lastname, username, email, password, salt, country, aboutme, dob, role, contactnumber)
 	VALUES (1024,'rdtrdtdyt','Abhi','Mahajan','abhi','a@gmail.com','507FF5FED1CAC746','8Xt6jxoCI3MWsVaKY/1ySAp2qzlb2Z7P89+vDrb1o6U=', 'India' ,'I am @ UpGrad' ,'22-10-1995' , 'admin' , '1222333333' );
 
 --USER_AUTH table is created to store the login information of all the users
+--It is range partitioned by EXPIRES_AT into daily partitions, which quora-service creates ahead of time and drops whole once every token in them has expired
 DROP TABLE IF EXISTS USER_AUTH CASCADE;
 CREATE TABLE IF NOT EXISTS USER_AUTH(
-	ID BIGSERIAL PRIMARY KEY,
+	ID BIGSERIAL NOT NULL,
 	uuid VARCHAR(200) NOT NULL,
 	USER_ID INTEGER NOT NULL,
 	ACCESS_TOKEN VARCHAR(500) NOT NULL,
+	ACCESS_TOKEN_DIGEST CHAR(64) NOT NULL,
 	EXPIRES_AT TIMESTAMP NOT NULL,
 	LOGIN_AT TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-	LOGOUT_AT TIMESTAMP NULL
-);
+	LOGOUT_AT TIMESTAMP NULL,
+	PRIMARY KEY (ID, EXPIRES_AT)
+) PARTITION BY RANGE (EXPIRES_AT);
+
+ALTER SEQUENCE user_auth_id_seq INCREMENT BY 50;
+
+--Catches the rows outside of every daily partition, its rows are moved into a daily partition when that partition is created
+CREATE TABLE IF NOT EXISTS USER_AUTH_DEFAULT PARTITION OF USER_AUTH DEFAULT;
 
 ALTER TABLE USER_AUTH ADD CONSTRAINT FK_USER_AUTH_USER_ID FOREIGN KEY(USER_ID) REFERENCES USERS(ID) ON DELETE CASCADE ;
 
+--Access tokens are looked up by the hex SHA-256 digest of the token, the raw token is too wide to index
+--A unique index of a partitioned table has to include the partition key, so the digest is only unique together with EXPIRES_AT:
+--EXPIRES_AT is the expiry signed into the token the digest is taken of, so one token never has two expiries and the digest stays unique
+CREATE UNIQUE INDEX IF NOT EXISTS USER_AUTH_ACCESS_TOKEN_DIGEST_IDX ON USER_AUTH(ACCESS_TOKEN_DIGEST, EXPIRES_AT);
+
+--Indexes on the user of every dependent row let the purge of a deleted user read its rows in bounded batches
+CREATE INDEX IF NOT EXISTS USER_AUTH_USER_ID_IDX ON USER_AUTH(USER_ID);
+
 --QUESTION table is created to store the questions related information posted by any user in the Application
 DROP TABLE IF EXISTS QUESTION CASCADE;
-CREATE TABLE IF NOT EXISTS QUESTION(id SERIAL,uuid VARCHAR(200) NOT NULL, content VARCHAR(500) NOT NULL, date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, PRIMARY KEY(id), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE);
+CREATE TABLE IF NOT EXISTS QUESTION(id SERIAL,uuid VARCHAR(200) NOT NULL, content VARCHAR(500) NOT NULL, date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, answer_count INTEGER NOT NULL DEFAULT 0, PRIMARY KEY(id), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE);
+
+ALTER SEQUENCE question_id_seq INCREMENT BY 50;
+
+--Keyset index backing the newest first listing of questions
+CREATE INDEX IF NOT EXISTS QUESTION_DATE_ID_IDX ON QUESTION(date DESC, id DESC);
+
+--Index backing the purge of the questions of a deleted user
+CREATE INDEX IF NOT EXISTS QUESTION_USER_ID_IDX ON QUESTION(user_id);
+
+--Full text search over the content of the questions, the tsvector is kept in sync by the database itself (PostgreSQL 12+)
+ALTER TABLE QUESTION ADD COLUMN content_tsv TSVECTOR GENERATED ALWAYS AS (to_tsvector('english', content)) STORED;
+CREATE INDEX IF NOT EXISTS QUESTION_CONTENT_TSV_IDX ON QUESTION USING GIN(content_tsv);
 
 
 --ANSWER table is created to store the answers related information in reply to any question posted in the Application
 DROP TABLE IF EXISTS ANSWER CASCADE;
 CREATE TABLE IF NOT EXISTS ANSWER(id SERIAL,uuid VARCHAR(200) NOT NULL, ans VARCHAR(255) NOT NULL,date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, question_id INTEGER NOT NULL , PRIMARY KEY(id), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE, FOREIGN KEY (question_id) REFERENCES QUESTION(id) ON DELETE CASCADE);
+
+ALTER SEQUENCE answer_id_seq INCREMENT BY 50;
+
+--Index backing the listing of all answers to a question
+CREATE INDEX IF NOT EXISTS ANSWER_QUESTION_ID_IDX ON ANSWER(question_id, date, id);
+
+--Index backing the purge of the answers of a deleted user
+CREATE INDEX IF NOT EXISTS ANSWER_USER_ID_IDX ON ANSWER(user_id);
+
+--Full text search over the answers
+ALTER TABLE ANSWER ADD COLUMN ans_tsv TSVECTOR GENERATED ALWAYS AS (to_tsvector('english', ans)) STORED;
+CREATE INDEX IF NOT EXISTS ANSWER_ANS_TSV_IDX ON ANSWER USING GIN(ans_tsv);
+
+--USER_PURGE table queues the background purges of deleted users, shared by every node of quora-api
+--Rows are kept after the user row is gone, so that the status of a completed purge can still be reported
+DROP TABLE IF EXISTS USER_PURGE CASCADE;
+CREATE TABLE IF NOT EXISTS USER_PURGE(user_uuid VARCHAR(200) NOT NULL, user_id INTEGER NOT NULL, phase VARCHAR(30) NOT NULL, answers_purged BIGINT NOT NULL DEFAULT 0, questions_purged BIGINT NOT NULL DEFAULT 0, auth_tokens_purged BIGINT NOT NULL DEFAULT 0, attempts INTEGER NOT NULL DEFAULT 0, next_attempt_at TIMESTAMP NOT NULL, claimed_until TIMESTAMP NULL, updated_at TIMESTAMP NOT NULL, PRIMARY KEY (user_uuid));
+CREATE INDEX IF NOT EXISTS USER_PURGE_NEXT_ATTEMPT_AT_IDX ON USER_PURGE(next_attempt_at) WHERE phase <> 'COMPLETED';
@@ -0,0 +1,26 @@
+package com.upgrad.quora.reactive;
+
+import com.upgrad.quora.service.business.JwtTokenProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Launches the non-blocking read path of the profile, question and answer listings on WebFlux and R2DBC.
+ * It serves the contracts of quora-api against the same database, next to quora-api rather than instead of it.
+ */
+@SpringBootApplication
+public class QuoraReactiveApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(QuoraReactiveApplication.class, args);
+    }
+
+    /**
+     * Verifies the access tokens issued by quora-api, with the same secret.
+     */
+    @Bean
+    public JwtTokenProvider jwtTokenProvider(@Value("${quora.auth.jwt.secret}") final String secret) {
+        return new JwtTokenProvider(secret);
+    }
+}
@@ -0,0 +1,39 @@
+package com.upgrad.quora.reactive.business;
+
+
+import com.upgrad.quora.reactive.dao.AnswerDao;
+import com.upgrad.quora.reactive.dao.QuestionDao;
+import com.upgrad.quora.reactive.model.AnswerDetailsResponse;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.function.Function;
+
+@Service
+public class AnswerBusinessService {
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private AnswerDao answerDao;
+
+    /**
+     * @return - the answers to the question, resolved once the question is known to exist so that QUES-001 is answered with an error status
+     */
+    public Mono<Flux<AnswerDetailsResponse>> getAllAnswersToQuestion(final String questionUuid) {
+        return questionDao.getQuestionSummary(questionUuid)
+                //Validate if question exists or not
+                .switchIfEmpty(Mono.<Tuple2<Integer, String>>error(new InvalidQuestionException("QUES-001","The question with entered uuid whose details are to be seen does not exist")))
+                .map(new Function<Tuple2<Integer, String>, Flux<AnswerDetailsResponse>>() {
+                    @Override
+                    public Flux<AnswerDetailsResponse> apply(final Tuple2<Integer, String> question) {
+                        return answerDao.getAnswers(question.getT1(), question.getT2());
+                    }
+                });
+    }
+}
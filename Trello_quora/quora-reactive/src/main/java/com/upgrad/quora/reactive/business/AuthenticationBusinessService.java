@@ -0,0 +1,94 @@
+package com.upgrad.quora.reactive.business;
+
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.quora.reactive.dao.UserDao;
+import com.upgrad.quora.service.business.JwtTokenProvider;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.function.Function;
+
+/**
+ * Checks the access token of a request as quora-api does and with its error codes: the JWT is verified in memory first,
+ * then looked up in USER_AUTH. Sign outs are only seen through USER_AUTH, the in-memory revocations of quora-api are not shared.
+ */
+@Service
+public class AuthenticationBusinessService {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Value("${quora.auth.jwt.verify:true}")
+    private boolean verifyJwt;
+
+    /**
+     * @param authorization - authorization header of the request, the raw access token or "Bearer <token>"
+     * @return - completes once the token is found to belong to a signed in user, fails with ATHR-001 or ATHR-002 otherwise
+     */
+    public Mono<Void> authenticate(final String authorization) {
+        String accessToken = extractAccessToken(authorization);
+
+        //Validate if the authorization header is present and well-formed
+        if (accessToken == null) {
+            return Mono.error(new AuthorizationFailedException("ATHR-001", "User has not signed in"));
+        }
+
+        DecodedJWT decodedJWT = null;
+        if (verifyJwt) {
+            decodedJWT = jwtTokenProvider.verifyToken(accessToken);
+
+            //Validate if the token was issued by us and is still valid
+            if (decodedJWT == null) {
+                return Mono.error(new AuthorizationFailedException("ATHR-001", "User has not signed in"));
+            }
+        }
+
+        final DecodedJWT verifiedJWT = decodedJWT;
+        return userDao.getUserAuth(accessToken)
+                //Validate if user is signed in or not
+                .switchIfEmpty(Mono.<Tuple2<String, Boolean>>error(new AuthorizationFailedException("ATHR-001", "User has not signed in")))
+                .flatMap(new Function<Tuple2<String, Boolean>, Mono<Void>>() {
+                    @Override
+                    public Mono<Void> apply(final Tuple2<String, Boolean> userAuth) {
+                        //Validate if the token was issued to the user it belongs to
+                        if (verifiedJWT != null && !verifiedJWT.getAudience().contains(userAuth.getT1())) {
+                            return Mono.error(new AuthorizationFailedException("ATHR-001", "User has not signed in"));
+                        }
+
+                        //Validate if user has signed out
+                        if (userAuth.getT2()) {
+                            return Mono.error(new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to get user details"));
+                        }
+                        return Mono.empty();
+                    }
+                });
+    }
+
+    //Accepts both the raw access token and the "Bearer <token>" form, anything blank or containing whitespace is malformed
+    private static String extractAccessToken(final String authorization) {
+        if (authorization == null) {
+            return null;
+        }
+        String accessToken = authorization.startsWith(BEARER_PREFIX) ? authorization.substring(BEARER_PREFIX.length()) : authorization;
+        accessToken = accessToken.trim();
+        if (accessToken.isEmpty()) {
+            return null;
+        }
+        for (int i = 0; i < accessToken.length(); i++) {
+            if (Character.isWhitespace(accessToken.charAt(i))) {
+                return null;
+            }
+        }
+        return accessToken;
+    }
+}
@@ -0,0 +1,65 @@
+package com.upgrad.quora.reactive.business;
+
+
+import com.upgrad.quora.reactive.dao.QuestionDao;
+import com.upgrad.quora.reactive.model.QuestionDetailsResponse;
+import com.upgrad.quora.service.common.QuestionCursor;
+import com.upgrad.quora.service.common.QuestionPage;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Service
+public class QuestionBusinessService {
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Value("${quora.question.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${quora.question.page.max-size:1000}")
+    private int maxPageSize;
+
+    /**
+     * Resolves the bounds of the page before any of it is written, so that an invalid cursor is still answered with an error status.
+     */
+    public Mono<QuestionPage> getQuestionPage(final String cursor, final Integer limit) {
+
+        QuestionCursor after = null;
+        if(cursor != null && !cursor.isEmpty()){
+            after = QuestionCursor.decode(cursor);
+            //Validate if the continuation token is well-formed
+            if(after == null){
+                return Mono.error(new InvalidCursorException("PAGE-001","Entered continuation token is invalid"));
+            }
+        }
+
+        final int pageSize = limit == null ? defaultPageSize : limit;
+        //Validate if the page size is within the allowed range
+        if(pageSize < 1 || pageSize > maxPageSize){
+            return Mono.error(new InvalidCursorException("PAGE-002","Page size must be between 1 and " + maxPageSize));
+        }
+
+        final QuestionCursor pageAfter = after;
+        return questionDao.getPageBoundary(after, pageSize).collectList().map(new Function<List<QuestionCursor>, QuestionPage>() {
+            @Override
+            public QuestionPage apply(final List<QuestionCursor> boundary) {
+                if(boundary.isEmpty()){
+                    return new QuestionPage(pageAfter, null, false, pageSize);
+                }
+                return new QuestionPage(pageAfter, boundary.get(0), boundary.size() > 1, pageSize);
+            }
+        });
+    }
+
+    public Flux<QuestionDetailsResponse> getQuestions(final QuestionPage page) {
+        return questionDao.getQuestions(page);
+    }
+}
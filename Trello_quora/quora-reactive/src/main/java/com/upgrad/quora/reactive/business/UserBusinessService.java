@@ -0,0 +1,22 @@
+package com.upgrad.quora.reactive.business;
+
+
+import com.upgrad.quora.reactive.dao.UserDao;
+import com.upgrad.quora.reactive.model.UserDetailsResponse;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+public class UserBusinessService {
+
+    @Autowired
+    private UserDao userDao;
+
+    public Mono<UserDetailsResponse> getUserDetails(final String userUuid) {
+        return userDao.getUserDetails(userUuid)
+                //validate if user exists or not
+                .switchIfEmpty(Mono.<UserDetailsResponse>error(new UserNotFoundException("USR-001", "User with entered uuid does not exist")));
+    }
+}
@@ -0,0 +1,68 @@
+package com.upgrad.quora.reactive.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Writes a stream of response objects as a JSON array, one element per buffer, as fast as the client reads it.
+ * Rows are read ahead of a slow client into a buffer, so that the database connection goes back to the pool as soon as the query
+ * completes instead of when the client has read the whole response. The listings are bounded queries, which bounds the buffer.
+ */
+@Component
+public class JsonArrayEncoder {
+
+    private static final byte START_ARRAY = '[';
+
+    private static final byte SEPARATOR = ',';
+
+    private static final byte END_ARRAY = ']';
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    public <T> Flux<DataBuffer> encode(final Flux<T> elements) {
+        Flux<DataBuffer> body = elements.onBackpressureBuffer().index().map(new Function<Tuple2<Long, T>, DataBuffer>() {
+            @Override
+            public DataBuffer apply(final Tuple2<Long, T> element) {
+                byte[] json = toJson(element.getT2());
+                DataBuffer buffer = bufferFactory.allocateBuffer(json.length + 1);
+                if (element.getT1() > 0) {
+                    buffer.write(SEPARATOR);
+                }
+                return buffer.write(json);
+            }
+        });
+        return Flux.concat(single(START_ARRAY), body, single(END_ARRAY));
+    }
+
+    private Mono<DataBuffer> single(final byte value) {
+        return Mono.fromCallable(new Callable<DataBuffer>() {
+            @Override
+            public DataBuffer call() {
+                return bufferFactory.wrap(new byte[]{value});
+            }
+        });
+    }
+
+    private byte[] toJson(final Object element) {
+        try {
+            return objectMapper.writeValueAsBytes(element);
+        } catch (JsonProcessingException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+}
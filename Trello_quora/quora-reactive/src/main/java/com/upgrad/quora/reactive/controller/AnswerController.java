@@ -0,0 +1,44 @@
+package com.upgrad.quora.reactive.controller;
+
+
+import com.upgrad.quora.reactive.business.AnswerBusinessService;
+import com.upgrad.quora.reactive.business.AuthenticationBusinessService;
+import com.upgrad.quora.reactive.common.JsonArrayEncoder;
+import com.upgrad.quora.reactive.model.AnswerDetailsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/")
+public class AnswerController {
+
+    @Autowired
+    private AuthenticationBusinessService authenticationBusinessService;
+
+    @Autowired
+    private AnswerBusinessService answerBusinessService;
+
+    @Autowired
+    private JsonArrayEncoder jsonArrayEncoder;
+
+    @GetMapping(path = "/answer/all/{questionId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllAnswersToQuestion(@PathVariable("questionId") final String questionUuid,
+                                                                          @RequestHeader(value = "authorization", required = false) final String authorization) {
+
+        return authenticationBusinessService.authenticate(authorization)
+                .then(answerBusinessService.getAllAnswersToQuestion(questionUuid))
+                .map(new Function<Flux<AnswerDetailsResponse>, ResponseEntity<Flux<DataBuffer>>>() {
+                    @Override
+                    public ResponseEntity<Flux<DataBuffer>> apply(final Flux<AnswerDetailsResponse> answers) {
+                        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(jsonArrayEncoder.encode(answers));
+                    }
+                });
+    }
+}
@@ -0,0 +1,38 @@
+package com.upgrad.quora.reactive.controller;
+
+
+import com.upgrad.quora.reactive.business.AuthenticationBusinessService;
+import com.upgrad.quora.reactive.business.UserBusinessService;
+import com.upgrad.quora.reactive.model.UserDetailsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/")
+public class CommonController {
+
+    @Autowired
+    private AuthenticationBusinessService authenticationBusinessService;
+
+    @Autowired
+    private UserBusinessService userBusinessService;
+
+    @GetMapping(path = "/userprofile/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<UserDetailsResponse>> userDetailsResponse(@PathVariable("userId") final String userUuid,
+                                                                         @RequestHeader(value = "authorization", required = false) final String authorization) {
+
+        return authenticationBusinessService.authenticate(authorization)
+                .then(userBusinessService.getUserDetails(userUuid))
+                .map(new Function<UserDetailsResponse, ResponseEntity<UserDetailsResponse>>() {
+                    @Override
+                    public ResponseEntity<UserDetailsResponse> apply(final UserDetailsResponse userDetailsResponse) {
+                        return ResponseEntity.ok(userDetailsResponse);
+                    }
+                });
+    }
+}
@@ -0,0 +1,57 @@
+package com.upgrad.quora.reactive.controller;
+
+
+import com.upgrad.quora.reactive.business.AuthenticationBusinessService;
+import com.upgrad.quora.reactive.business.QuestionBusinessService;
+import com.upgrad.quora.reactive.common.JsonArrayEncoder;
+import com.upgrad.quora.service.common.QuestionPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/")
+public class QuestionController {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    @Autowired
+    private AuthenticationBusinessService authenticationBusinessService;
+
+    @Autowired
+    private QuestionBusinessService questionBusinessService;
+
+    @Autowired
+    private JsonArrayEncoder jsonArrayEncoder;
+
+    /**
+     * Returns one page of questions, newest first, as a JSON array of QuestionDetailsResponse streamed as the client reads it.
+     * The continuation token of the next page is returned in the X-Next-Cursor header, tokens are interchangeable with quora-api.
+     */
+    @GetMapping(path = "/question/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllQuestions(@RequestParam(value = "cursor", required = false) final String cursor,
+                                                                  @RequestParam(value = "limit", required = false) final Integer limit,
+                                                                  @RequestHeader(value = "authorization", required = false) final String authorization) {
+
+        return authenticationBusinessService.authenticate(authorization)
+                .then(questionBusinessService.getQuestionPage(cursor, limit))
+                .map(new Function<QuestionPage, ResponseEntity<Flux<DataBuffer>>>() {
+                    @Override
+                    public ResponseEntity<Flux<DataBuffer>> apply(final QuestionPage questionPage) {
+                        HttpHeaders headers = new HttpHeaders();
+                        if(questionPage.getNextCursor() != null){
+                            headers.set(NEXT_CURSOR_HEADER, questionPage.getNextCursor());
+                        }
+                        return ResponseEntity.ok().headers(headers).contentType(MediaType.APPLICATION_JSON)
+                                .body(jsonArrayEncoder.encode(questionBusinessService.getQuestions(questionPage)));
+                    }
+                });
+    }
+}
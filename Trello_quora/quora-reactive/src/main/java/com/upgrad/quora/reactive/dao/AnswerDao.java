@@ -0,0 +1,47 @@
+package com.upgrad.quora.reactive.dao;
+
+
+import com.upgrad.quora.reactive.model.AnswerDetailsResponse;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Function;
+
+@Repository
+public class AnswerDao {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Value("${quora.r2dbc.fetch-size:250}")
+    private int fetchSize;
+
+    /**
+     * Answers to the question in the order they were given, read from the (question_id, date, id) index.
+     */
+    public Flux<AnswerDetailsResponse> getAnswers(final int questionId, final String questionContent){
+        return databaseClient.sql("select uuid, ans from ANSWER where question_id = :questionId order by date, id")
+                .bind("questionId", questionId)
+                .filter(new Function<Statement, Statement>() {
+                    @Override
+                    public Statement apply(final Statement statement) {
+                        return statement.fetchSize(fetchSize);
+                    }
+                })
+                .map(new Function<Row, AnswerDetailsResponse>() {
+                    @Override
+                    public AnswerDetailsResponse apply(final Row row) {
+                        return new AnswerDetailsResponse()
+                                .id(row.get("uuid", String.class))
+                                .questionContent(questionContent)
+                                .answerContent(row.get("ans", String.class));
+                    }
+                })
+                .all();
+    }
+}
@@ -0,0 +1,117 @@
+package com.upgrad.quora.reactive.dao;
+
+
+import com.upgrad.quora.reactive.model.QuestionDetailsResponse;
+import com.upgrad.quora.service.common.QuestionCursor;
+import com.upgrad.quora.service.common.QuestionPage;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.Function;
+
+/**
+ * Keyset paging over the questions, newest first, with the same cursors as the question listing of quora-api.
+ * QUESTION.date is a timestamp without time zone written in the zone of the JVM, as Hibernate does.
+ */
+@Repository
+public class QuestionDao {
+
+    private static final String AFTER = " and (date < :afterDate or (date = :afterDate and id < :afterId))";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Value("${quora.r2dbc.fetch-size:250}")
+    private int fetchSize;
+
+    /**
+     * @return - the key of the last question of the page and the key after it if there is one, none if the page is empty
+     */
+    public Flux<QuestionCursor> getPageBoundary(final QuestionCursor after, final int limit){
+        StringBuilder sql = new StringBuilder("select date, id from QUESTION where 1 = 1");
+        if(after != null){
+            sql.append(AFTER);
+        }
+        sql.append(" order by date desc, id desc offset :offset limit 2");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("offset", limit - 1);
+        if(after != null){
+            spec = spec.bind("afterDate", toTimestamp(after)).bind("afterId", after.getId());
+        }
+        return spec.map(new Function<Row, QuestionCursor>() {
+            @Override
+            public QuestionCursor apply(final Row row) {
+                return new QuestionCursor(row.get("date", LocalDateTime.class).atZone(ZoneId.systemDefault()), row.get("id", Integer.class));
+            }
+        }).all();
+    }
+
+    public Flux<QuestionDetailsResponse> getQuestions(final QuestionPage page){
+        final QuestionCursor after = page.getAfter();
+        final QuestionCursor last = page.getLast();
+        StringBuilder sql = new StringBuilder("select uuid, content, answer_count from QUESTION where 1 = 1");
+        if(after != null){
+            sql.append(AFTER);
+        }
+        if(last != null){
+            sql.append(" and (date > :lastDate or (date = :lastDate and id >= :lastId))");
+        }
+        sql.append(" order by date desc, id desc");
+        if(last == null){
+            sql.append(" limit :limit");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        if(after != null){
+            spec = spec.bind("afterDate", toTimestamp(after)).bind("afterId", after.getId());
+        }
+        if(last != null){
+            spec = spec.bind("lastDate", toTimestamp(last)).bind("lastId", last.getId());
+        } else {
+            spec = spec.bind("limit", page.getLimit());
+        }
+        return spec.filter(new Function<Statement, Statement>() {
+            @Override
+            public Statement apply(final Statement statement) {
+                return statement.fetchSize(fetchSize);
+            }
+        }).map(new Function<Row, QuestionDetailsResponse>() {
+            @Override
+            public QuestionDetailsResponse apply(final Row row) {
+                return new QuestionDetailsResponse()
+                        .id(row.get("uuid", String.class))
+                        .content(row.get("content", String.class))
+                        .answerCount(row.get("answer_count", Integer.class));
+            }
+        }).all();
+    }
+
+    private static LocalDateTime toTimestamp(final QuestionCursor cursor){
+        return cursor.getDate().withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    /**
+     * @return - id and content of the question, empty if there is no such question
+     */
+    public Mono<Tuple2<Integer, String>> getQuestionSummary(final String questionUuid){
+        return databaseClient.sql("select id, content from QUESTION where uuid = :uuid")
+                .bind("uuid", questionUuid)
+                .map(new Function<Row, Tuple2<Integer, String>>() {
+                    @Override
+                    public Tuple2<Integer, String> apply(final Row row) {
+                        return Tuples.of(row.get("id", Integer.class), row.get("content", String.class));
+                    }
+                })
+                .first();
+    }
+}
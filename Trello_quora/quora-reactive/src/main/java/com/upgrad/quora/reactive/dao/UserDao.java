@@ -0,0 +1,61 @@
+package com.upgrad.quora.reactive.dao;
+
+
+import com.upgrad.quora.reactive.model.UserDetailsResponse;
+import com.upgrad.quora.service.common.AccessTokenDigest;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.function.Function;
+
+@Repository
+public class UserDao {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Looks the access token up in USER_AUTH by its digest, as the UserDao of quora-service does.
+     * The tokens of deleted users and expired tokens, which stay in USER_AUTH until their partition is dropped, are not found.
+     *
+     * @return - uuid of the user the token was issued to and whether the token has been signed out, empty if there is no such token
+     */
+    public Mono<Tuple2<String, Boolean>> getUserAuth(final String accessToken){
+        return databaseClient.sql("select u.uuid, ua.logout_at is not null as signed_out from USER_AUTH ua join USERS u on u.id = ua.user_id " +
+                "where ua.access_token_digest = :accessTokenDigest and ua.expires_at > now() and u.deleted_at is null")
+                .bind("accessTokenDigest", AccessTokenDigest.of(accessToken))
+                .map(new Function<Row, Tuple2<String, Boolean>>() {
+                    @Override
+                    public Tuple2<String, Boolean> apply(final Row row) {
+                        return Tuples.of(row.get("uuid", String.class), row.get("signed_out", Boolean.class));
+                    }
+                })
+                .first();
+    }
+
+    public Mono<UserDetailsResponse> getUserDetails(final String userUuid){
+        return databaseClient.sql("select firstname, lastname, email, username, aboutme, country, contactnumber, dob from USERS " +
+                "where uuid = :uuid and deleted_at is null")
+                .bind("uuid", userUuid)
+                .map(new Function<Row, UserDetailsResponse>() {
+                    @Override
+                    public UserDetailsResponse apply(final Row row) {
+                        return new UserDetailsResponse()
+                                .firstName(row.get("firstname", String.class))
+                                .lastName(row.get("lastname", String.class))
+                                .emailAddress(row.get("email", String.class))
+                                .userName(row.get("username", String.class))
+                                .aboutMe(row.get("aboutme", String.class))
+                                .country(row.get("country", String.class))
+                                .contactNumber(row.get("contactnumber", String.class))
+                                .dob(String.valueOf(row.get("dob", String.class)));
+                    }
+                })
+                .first();
+    }
+}
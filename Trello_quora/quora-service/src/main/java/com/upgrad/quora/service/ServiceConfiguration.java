@@ -1,9 +1,14 @@
 package com.upgrad.quora.service;
 
 
+import com.upgrad.quora.service.business.JwtTokenProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
  * Enabling the component scan and entity scan of classes in the below mentioned "com.upgrad.quora.service" and "com.upgrad.quora.service.entity" packages respectively.
@@ -11,5 +16,25 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 @ComponentScan("com.upgrad.quora.service")
 @EntityScan("com.upgrad.quora.service.entity")
+@EnableScheduling
 public class ServiceConfiguration {
+
+    /**
+     * JWT token provider signing and verifying access tokens with the server side secret, shared by every request.
+     */
+    @Bean
+    public JwtTokenProvider jwtTokenProvider(@Value("${quora.auth.jwt.secret}") final String secret) {
+        return new JwtTokenProvider(secret);
+    }
+
+    /**
+     * Scheduler of the background jobs, with a thread per job so that one long running job never holds up the others.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${quora.scheduler.threads:3}") final int threads) {
+        ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(threads);
+        taskScheduler.setThreadNamePrefix("quora-job-");
+        return taskScheduler;
+    }
 }
@@ -1,50 +1,99 @@
 package com.upgrad.quora.service.business;
 
 
+import com.upgrad.quora.service.common.AfterCommit;
+import com.upgrad.quora.service.common.UserPurgeProgress;
+import com.upgrad.quora.service.dao.QuestionDao;
 import com.upgrad.quora.service.dao.UserDao;
-import com.upgrad.quora.service.entity.UserAuthTokenEntity;
+import com.upgrad.quora.service.dao.UserPurgeDao;
 import com.upgrad.quora.service.entity.UserEntity;
-import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.entity.UserPurgeEntity;
 import com.upgrad.quora.service.exception.UserNotFoundException;
+import com.upgrad.quora.service.search.QuestionSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZonedDateTime;
+import java.util.List;
+
 @Service
 public class AdminBusinessService {
 
     @Autowired
     private UserDao userDao;
 
-    @Transactional(propagation = Propagation.REQUIRED)
-    public void deleteUser(final String userUuid, final String authorization) throws AuthorizationFailedException, UserNotFoundException {
+    @Autowired
+    private QuestionDao questionDao;
 
-        UserAuthTokenEntity userAuthToken = userDao.getUserAuthToken(authorization);
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
 
-        //Validate if user is signed in or not
-        if(userAuthToken == null){
-            throw new AuthorizationFailedException("ATHR-001","User has not signed in");
-        }
+    @Autowired
+    private UserPurgeDao userPurgeDao;
 
-        //Validate if user has signed out
-        if(userAuthToken.getLogoutAt() != null){
-            throw new AuthorizationFailedException("ATHR-002","User is signed out.Sign in first to get user details");
+    /**
+     * Marks the user as deleted, the rows of the user are purged by UserPurgeJob in the background.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void deleteUser(final String userUuid) throws UserNotFoundException {
+
+        //Validate if user exists or not
+        UserEntity userEntity = userDao.getUser(userUuid);
+        if(userEntity == null){
+            throw new UserNotFoundException("USR-001","User with entered uuid does not exist");
         }
 
-        //Validate user is admin or not
-        String role = userAuthToken.getUser().getRole();
+        //The questions of the user are taken out of search right away rather than as the purge reaches them
+        final List<Long> questionIds = questionDao.getQuestionIdsByUser(userEntity.getId());
+
+        userDao.markUserDeleted(userEntity);
+
+        //Queue the purge in the same transaction, so that every deleted user is purged
+        UserPurgeEntity userPurgeEntity = new UserPurgeEntity();
+        userPurgeEntity.setUserUuid(userEntity.getUuid());
+        userPurgeEntity.setUserId(userEntity.getId());
+        userPurgeEntity.setPhase(UserPurgeProgress.Phase.PENDING);
+        userPurgeEntity.setNextAttemptAt(userEntity.getDeletedAt());
+        userPurgeEntity.setUpdatedAt(userEntity.getDeletedAt());
+        userPurgeDao.createUserPurge(userPurgeEntity);
+
+        AfterCommit.run(new Runnable() {
+            @Override
+            public void run() {
+                for (Long questionId : questionIds) {
+                    questionSearchIndex.remove(questionId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reports the progress of the purge of a deleted user.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public UserPurgeProgress getPurgeProgress(final String userUuid) throws UserNotFoundException {
 
-        if(role.equals("nonadmin")){
-            throw new AuthorizationFailedException("ATHR-003","Unauthorized Access, Entered user is not an admin");
+        UserPurgeEntity userPurgeEntity = userPurgeDao.getUserPurge(userUuid);
+        if(userPurgeEntity != null){
+            return new UserPurgeProgress(userUuid, userPurgeEntity.getPhase(), userPurgeEntity.getAnswersPurged(),
+                    userPurgeEntity.getQuestionsPurged(), userPurgeEntity.getAuthTokensPurged(), userPurgeEntity.getUpdatedAt());
         }
 
+        UserEntity userEntity = userDao.getUserIncludingDeleted(userUuid);
+
         //Validate if user exists or not
-        UserEntity userEntity = userDao.getUser(userUuid);
         if(userEntity == null){
             throw new UserNotFoundException("USR-001","User with entered uuid does not exist");
         }
 
-        userDao.deleteUser(userUuid);
+        //Validate if user has been deleted
+        if(userEntity.getDeletedAt() == null){
+            throw new UserNotFoundException("USR-002","User with entered uuid has not been deleted");
+        }
+
+        //Deleted without a queued purge, which only happens until migration 008 has queued the purges of earlier deletes
+        return new UserPurgeProgress(userUuid, UserPurgeProgress.Phase.PENDING, 0, 0, 0, userEntity.getDeletedAt());
     }
 }
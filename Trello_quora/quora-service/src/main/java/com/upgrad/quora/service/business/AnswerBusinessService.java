@@ -0,0 +1,163 @@
+package com.upgrad.quora.service.business;
+
+
+import com.upgrad.quora.service.common.AnswerSummary;
+import com.upgrad.quora.service.common.UserPrincipal;
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.exception.AnswerNotFoundException;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidBulkRequestException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class AnswerBusinessService {
+
+    @Autowired
+    private AnswerDao answerDao;
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Value("${quora.bulk.max-size:1000}")
+    private int maxBulkSize;
+
+    /**
+     * Creates the answer and counts it on its question in the same transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public AnswerEntity createAnswer(final UserPrincipal principal, final String questionUuid, final String answer) throws InvalidQuestionException {
+
+        Object[] questionSummary = questionDao.getQuestionSummary(questionUuid);
+
+        //Validate if question exists or not
+        if(questionSummary == null){
+            throw new InvalidQuestionException("QUES-001","The question entered is invalid");
+        }
+
+        final long questionId = (Long) questionSummary[0];
+        questionDao.addToAnswerCount(questionId, 1);
+
+        AnswerEntity answerEntity = new AnswerEntity();
+        answerEntity.setUuid(UUID.randomUUID().toString());
+        answerEntity.setAnswer(answer);
+        answerEntity.setDate(ZonedDateTime.now());
+        answerEntity.setUser(userDao.getUserReference(principal.getUserId()));
+        answerEntity.setQuestion(questionDao.getQuestionReference(questionId));
+        return answerDao.createAnswer(answerEntity);
+    }
+
+    /**
+     * Creates all the answers to the question in one transaction, inserted in JDBC batches and counted on the question with a single update.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public List<AnswerEntity> createAnswers(final UserPrincipal principal, final String questionUuid, final List<String> answers) throws InvalidQuestionException, InvalidBulkRequestException {
+
+        //Validate if the number of answers is within the allowed range
+        if(answers == null || answers.isEmpty() || answers.size() > maxBulkSize){
+            throw new InvalidBulkRequestException("BULK-001","Number of answers must be between 1 and " + maxBulkSize);
+        }
+
+        Object[] questionSummary = questionDao.getQuestionSummary(questionUuid);
+
+        //Validate if question exists or not
+        if(questionSummary == null){
+            throw new InvalidQuestionException("QUES-001","The question entered is invalid");
+        }
+
+        final long questionId = (Long) questionSummary[0];
+        questionDao.addToAnswerCount(questionId, answers.size());
+
+        final ZonedDateTime now = ZonedDateTime.now();
+        List<AnswerEntity> answerEntities = new ArrayList<AnswerEntity>(answers.size());
+        for (String answer : answers) {
+            AnswerEntity answerEntity = new AnswerEntity();
+            answerEntity.setUuid(UUID.randomUUID().toString());
+            answerEntity.setAnswer(answer);
+            answerEntity.setDate(now);
+            answerEntity.setUser(userDao.getUserReference(principal.getUserId()));
+            answerEntity.setQuestion(questionDao.getQuestionReference(questionId));
+            answerEntities.add(answerEntity);
+        }
+        return answerDao.createAnswers(answerEntities);
+    }
+
+    /**
+     * Deletes the answer and uncounts it from its question in the same transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public AnswerEntity deleteAnswer(final UserPrincipal principal, final String answerUuid) throws AuthorizationFailedException, AnswerNotFoundException {
+
+        AnswerEntity answerEntity = answerDao.getAnswerWithAuthorAndQuestion(answerUuid);
+
+        //Validate if answer exists or not
+        if(answerEntity == null){
+            throw new AnswerNotFoundException("ANS-001","Entered answer uuid does not exist");
+        }
+
+        //Validate if the signed in user owns the answer or is an admin
+        if(answerEntity.getUser().getId() != principal.getUserId() && !principal.isAdmin()){
+            throw new AuthorizationFailedException("ATHR-003","Only the answer owner or admin can delete the answer");
+        }
+
+        questionDao.addToAnswerCount(answerEntity.getQuestion().getId(), -1);
+        answerDao.deleteAnswer(answerEntity);
+        return answerEntity;
+    }
+
+    /**
+     * Returns the content of the question and the summaries of all its answers.
+     * Two statements are issued however many answers the question has.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public QuestionAnswers getAllAnswersToQuestion(final String questionUuid) throws InvalidQuestionException {
+
+        Object[] questionSummary = questionDao.getQuestionSummary(questionUuid);
+
+        //Validate if question exists or not
+        if(questionSummary == null){
+            throw new InvalidQuestionException("QUES-001","The question with entered uuid whose details are to be seen does not exist");
+        }
+
+        List<AnswerSummary> answers = answerDao.getAnswerSummaries((Long) questionSummary[0]);
+        return new QuestionAnswers((String) questionSummary[1], answers);
+    }
+
+    /**
+     * Content of a question together with the summaries of its answers.
+     */
+    public static final class QuestionAnswers {
+
+        private final String questionContent;
+
+        private final List<AnswerSummary> answers;
+
+        private QuestionAnswers(final String questionContent, final List<AnswerSummary> answers) {
+            this.questionContent = questionContent;
+            this.answers = answers;
+        }
+
+        public String getQuestionContent() {
+            return questionContent;
+        }
+
+        public List<AnswerSummary> getAnswers() {
+            return answers;
+        }
+    }
+}
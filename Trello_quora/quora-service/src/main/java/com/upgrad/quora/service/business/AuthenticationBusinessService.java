@@ -0,0 +1,166 @@
+package com.upgrad.quora.service.business;
+
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.quora.service.common.AfterCommit;
+import com.upgrad.quora.service.common.UserAuthTokenSnapshot;
+import com.upgrad.quora.service.common.UserPrincipal;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.UserAuthTokenEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthenticationFailedException;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.HashingCapacityExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Service
+public class AuthenticationBusinessService {
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Autowired
+    private UserBusinessService userBusinessService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${quora.auth.jwt.verify:true}")
+    private boolean verifyJwt;
+
+    @Value("${quora.auth.jwt.validity-hours:8}")
+    private long validityHours;
+
+    /**
+     * Signs the user in with username and password and issues a new access token.
+     * The password is checked on the hashing pool outside of any transaction, only the new token is written in one.
+     */
+    public UserAuthTokenEntity signin(final String userName, final String password) throws AuthenticationFailedException, HashingCapacityExceededException {
+
+        final UserEntity userEntity = userDao.getUserByUserName(userName);
+
+        //Validate if the username exists
+        if(userEntity == null){
+            throw new AuthenticationFailedException("ATH-001","This username does not exist");
+        }
+
+        //Validate if the password matches
+        if(!userBusinessService.verifyPassword(userEntity, password)){
+            throw new AuthenticationFailedException("ATH-002","Password failed");
+        }
+
+        final ZonedDateTime now = ZonedDateTime.now();
+        final ZonedDateTime expiresAt = now.plusHours(validityHours);
+        final UserAuthTokenEntity userAuthToken = new UserAuthTokenEntity();
+        userAuthToken.setUuid(UUID.randomUUID().toString());
+        userAuthToken.setUser(userEntity);
+        userAuthToken.setAccessToken(jwtTokenProvider.generateToken(userEntity.getUuid(), now, expiresAt));
+        userAuthToken.setLoginAt(now);
+        userAuthToken.setExpiresAt(expiresAt);
+
+        return transactionTemplate.execute(new TransactionCallback<UserAuthTokenEntity>() {
+            @Override
+            public UserAuthTokenEntity doInTransaction(final TransactionStatus status) {
+                return userDao.createAuthToken(userAuthToken);
+            }
+        });
+    }
+
+    /**
+     * Signs the access token out. The cached state of the token is invalidated with the update, and the JWT is revoked once the
+     * sign out has committed, so that further requests with the token are rejected in memory.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void signout(final String accessToken) throws AuthorizationFailedException {
+
+        UserAuthTokenEntity userAuthToken = userDao.getUserAuthTokenEntity(accessToken);
+
+        //Validate if the token still exists, it may have been purged since it was authenticated
+        if(userAuthToken == null){
+            throw new AuthorizationFailedException("ATHR-001","User has not signed in");
+        }
+
+        userAuthToken.setLogoutAt(ZonedDateTime.now());
+        userDao.updateUserAuthToken(userAuthToken);
+
+        if(verifyJwt){
+            final DecodedJWT decodedJWT = jwtTokenProvider.verifyToken(accessToken);
+            if(decodedJWT != null){
+                AfterCommit.run(new Runnable() {
+                    @Override
+                    public void run() {
+                        revokedTokenRegistry.revoke(decodedJWT.getKeyId(), decodedJWT.getExpiresAt());
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Resolves the access token of a signed in user.
+     * Malformed, forged, expired and revoked JWT tokens are rejected in memory, only tokens which pass the verification are looked up in USER_AUTH.
+     */
+    public UserAuthTokenSnapshot authenticate(final String accessToken) throws AuthorizationFailedException {
+
+        DecodedJWT decodedJWT = null;
+        if(verifyJwt){
+            decodedJWT = jwtTokenProvider.verifyToken(accessToken);
+
+            //Validate if the token was issued by us and is still valid
+            if(decodedJWT == null){
+                throw new AuthorizationFailedException("ATHR-001","User has not signed in");
+            }
+
+            //Validate if the token has been signed out
+            if(revokedTokenRegistry.isRevoked(decodedJWT.getKeyId())){
+                throw new AuthorizationFailedException("ATHR-002","User is signed out.Sign in first to get user details");
+            }
+        }
+
+        UserAuthTokenSnapshot userAuthToken = userDao.getUserAuthToken(accessToken);
+
+        //Validate if user is signed in or not
+        if(userAuthToken == null){
+            throw new AuthorizationFailedException("ATHR-001","User has not signed in");
+        }
+
+        //Validate if the token was issued to the user it belongs to
+        if(decodedJWT != null && !decodedJWT.getAudience().contains(userAuthToken.getUserUuid())){
+            throw new AuthorizationFailedException("ATHR-001","User has not signed in");
+        }
+
+        //Validate if user has signed out
+        if(userAuthToken.isSignedOut()){
+            if(decodedJWT != null){
+                revokedTokenRegistry.revoke(decodedJWT.getKeyId(), decodedJWT.getExpiresAt());
+            }
+            throw new AuthorizationFailedException("ATHR-002","User is signed out.Sign in first to get user details");
+        }
+
+        return userAuthToken;
+    }
+
+    /**
+     * Resolves the access token into the principal of the signed in user, published to the controllers for the rest of the request.
+     */
+    public UserPrincipal resolvePrincipal(final String accessToken) throws AuthorizationFailedException {
+
+        return authenticate(accessToken).toPrincipal();
+    }
+}
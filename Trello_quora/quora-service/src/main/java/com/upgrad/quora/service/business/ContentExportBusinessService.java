@@ -0,0 +1,40 @@
+package com.upgrad.quora.service.business;
+
+
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.ContentExportHandler;
+import com.upgrad.quora.service.dao.QuestionDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+
+/**
+ * Exports the questions and answers in a single read-only transaction, so that both are read from the same snapshot.
+ * Rows are fetched from server side cursors, a fetch size at a time, which keeps the memory of an export independent of the size of the tables.
+ */
+@Service
+public class ContentExportBusinessService {
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private AnswerDao answerDao;
+
+    @Value("${quora.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void exportContent(final boolean questions, final boolean answers, final ContentExportHandler handler) throws IOException {
+        if(questions){
+            questionDao.scrollQuestionExport(fetchSize, handler);
+        }
+        if(answers){
+            answerDao.scrollAnswerExport(fetchSize, handler);
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.upgrad.quora.service.business;
+
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.service.common.AfterCommit;
+import com.upgrad.quora.service.common.ContentImportProgress;
+import com.upgrad.quora.service.dao.ContentImportDao;
+import com.upgrad.quora.service.exception.ContentImportException;
+import com.upgrad.quora.service.search.QuestionSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Imports users, questions and answers from an NDJSON stream, one JSON object per line with a "type" of user, question or answer.
+ * Lines are parsed one at a time and their rows are written with COPY in chunks, every chunk in its own transaction, so the memory
+ * held is one chunk of rows plus the uuid to id maps of the imported users and questions.
+ * Ids are drawn from the same sequences as the entity ids, which lets questions and answers reference rows of the same chunk.
+ */
+@Service
+public class ContentImportBusinessService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentImportBusinessService.class);
+
+    //Allocation size of the id generators of the entities, every value drawn from a sequence is the highest id of a block of this size
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final String COPY_USERS = "COPY USERS (id, uuid, firstName, lastName, userName, email, password, salt, country, aboutMe, dob, role, contactNumber) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String COPY_QUESTIONS = "COPY QUESTION (id, uuid, content, date, user_id) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String COPY_ANSWERS = "COPY ANSWER (id, uuid, ans, date, user_id, question_id) FROM STDIN WITH (FORMAT csv)";
+
+    //Fields of a user line in the column order of COPY_USERS, with the width of their column, the first seven are mandatory
+    private static final String[] USER_FIELDS = {"uuid", "firstName", "lastName", "userName", "email", "password", "salt", "country", "aboutMe", "dob", "role", "contactNumber"};
+    private static final int[] USER_FIELD_LENGTHS = {200, 30, 30, 30, 50, 255, 200, 30, 50, 30, 30, 30};
+    private static final int USER_REQUIRED_FIELDS = 7;
+
+    private static final String DEFAULT_ROLE = "nonadmin";
+
+    @Autowired
+    private ContentImportDao contentImportDao;
+
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${quora.import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${quora.import.max-errors:100}")
+    private int maxErrors;
+
+    private final AtomicReference<ContentImportProgress> lastImport = new AtomicReference<ContentImportProgress>();
+
+    /**
+     * @return - the progress of the running or last content import on this node
+     */
+    public ContentImportProgress getProgress() throws ContentImportException {
+        ContentImportProgress progress = lastImport.get();
+        if(progress == null){
+            throw new ContentImportException("IMP-003","No content import has been started");
+        }
+        return progress;
+    }
+
+    /**
+     * Imports the NDJSON stream. Malformed lines and lines referencing unknown users or questions are rejected and counted, the import goes on.
+     * A chunk which cannot be written (e.g. a duplicate userName or email) ends the import, the chunks before it stay committed.
+     *
+     * @param content  - NDJSON stream of users, questions and answers, every line after the lines it references
+     * @param fromLine - first line to import, lines before it are skipped, to resume an import after its last committed line
+     */
+    public ContentImportProgress importContent(final InputStream content, final long fromLine) throws ContentImportException {
+
+        ContentImportProgress previous = lastImport.get();
+        ContentImportProgress progress = new ContentImportProgress(maxErrors);
+
+        //Validate if another import is running, two imports would race on the uniqueness of user names and emails
+        if((previous != null && previous.getPhase() == ContentImportProgress.Phase.RUNNING) || !lastImport.compareAndSet(previous, progress)){
+            throw new ContentImportException("IMP-001","A content import is already running");
+        }
+
+        ImportRun run = new ImportRun(progress);
+        try {
+            run.read(new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8)), Math.max(1, fromLine));
+            progress.setPhase(ContentImportProgress.Phase.COMPLETED);
+        } catch (IOException | RuntimeException e) {
+            progress.setPhase(ContentImportProgress.Phase.FAILED);
+            LOGGER.warn("Content import failed after line {}", progress.getCommittedLine(), e);
+            throw new ContentImportException("IMP-002","Import failed, lines up to " + progress.getCommittedLine() +
+                    " are committed, resume from line " + (progress.getCommittedLine() + 1));
+        }
+        LOGGER.info("Content import completed: {} users, {} questions, {} answers, {} lines rejected", progress.getUsersImported(),
+                progress.getQuestionsImported(), progress.getAnswersImported(), progress.getLinesRejected());
+        return progress;
+    }
+
+    /**
+     * State of one import: the uuid to id maps and the rows of the chunk being filled.
+     */
+    private final class ImportRun {
+
+        private final ContentImportProgress progress;
+
+        //Keys are UUIDs where the legacy uuid parses as one, a fixed 16 bytes rather than a string per entry
+        private final Map<Object, Integer> userIds = new HashMap<Object, Integer>();
+
+        private final Map<Object, Integer> questionIds = new HashMap<Object, Integer>();
+
+        private final IdAllocator userIdAllocator = new IdAllocator("users_id_seq");
+
+        private final IdAllocator questionIdAllocator = new IdAllocator("question_id_seq");
+
+        private final IdAllocator answerIdAllocator = new IdAllocator("answer_id_seq");
+
+        private final StringBuilder userRows = new StringBuilder();
+
+        private final StringBuilder questionRows = new StringBuilder();
+
+        private final StringBuilder answerRows = new StringBuilder();
+
+        private int users;
+
+        private int questions;
+
+        private int answers;
+
+        private TreeMap<Integer, Integer> answerCounts = new TreeMap<Integer, Integer>();
+
+        private List<Long> indexedIds = new ArrayList<Long>();
+
+        private List<String> indexedContents = new ArrayList<String>();
+
+        private ImportRun(final ContentImportProgress progress) {
+            this.progress = progress;
+        }
+
+        void read(final BufferedReader reader, final long fromLine) throws IOException {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber < fromLine || line.trim().isEmpty()) {
+                    continue;
+                }
+                String rejection;
+                try {
+                    rejection = add(objectMapper.readTree(line));
+                } catch (JsonProcessingException e) {
+                    rejection = "malformed JSON";
+                }
+                if (rejection != null) {
+                    progress.reject(lineNumber, rejection);
+                }
+                progress.setLinesRead(lineNumber);
+                if (users + questions + answers >= chunkSize) {
+                    flush(lineNumber);
+                }
+            }
+            flush(lineNumber);
+        }
+
+        /**
+         * @return - the reason the line is rejected, or null if its row was added to the chunk
+         */
+        private String add(final JsonNode node) {
+            String type = text(node, "type");
+            if ("user".equals(type)) {
+                return addUser(node);
+            } else if ("question".equals(type)) {
+                return addQuestion(node);
+            } else if ("answer".equals(type)) {
+                return addAnswer(node);
+            }
+            return "unknown type " + type;
+        }
+
+        private String addUser(final JsonNode node) {
+            Object[] row = new Object[USER_FIELDS.length + 1];
+            for (int i = 0; i < USER_FIELDS.length; i++) {
+                String value = text(node, USER_FIELDS[i]);
+                String rejection = validate(USER_FIELDS[i], value, USER_FIELD_LENGTHS[i], i < USER_REQUIRED_FIELDS);
+                if (rejection != null) {
+                    return rejection;
+                }
+                row[i + 1] = value;
+            }
+            if (row[11] == null) {
+                row[11] = DEFAULT_ROLE;
+            }
+            Object key = key((String) row[1]);
+            if (userIds.containsKey(key)) {
+                return "duplicate user " + row[1];
+            }
+            int id = userIdAllocator.nextId();
+            row[0] = id;
+            userIds.put(key, id);
+            appendRow(userRows, row);
+            users++;
+            return null;
+        }
+
+        private String addQuestion(final JsonNode node) {
+            String uuid = text(node, "uuid");
+            String content = text(node, "content");
+            String rejection = firstNonNull(validate("uuid", uuid, 200, true), validate("content", content, 500, true));
+            if (rejection != null) {
+                return rejection;
+            }
+            LocalDateTime date = date(text(node, "date"));
+            if (date == null) {
+                return "invalid date";
+            }
+            Integer userId = resolveUser(text(node, "user"));
+            if (userId == null) {
+                return "unknown user " + text(node, "user");
+            }
+            Object key = key(uuid);
+            if (questionIds.containsKey(key)) {
+                return "duplicate question " + uuid;
+            }
+            int id = questionIdAllocator.nextId();
+            questionIds.put(key, id);
+            appendRow(questionRows, id, uuid, content, date, userId);
+            indexedIds.add((long) id);
+            indexedContents.add(content);
+            questions++;
+            return null;
+        }
+
+        private String addAnswer(final JsonNode node) {
+            String uuid = text(node, "uuid");
+            String answer = text(node, "answer");
+            String rejection = firstNonNull(validate("uuid", uuid, 200, true), validate("answer", answer, 255, true));
+            if (rejection != null) {
+                return rejection;
+            }
+            LocalDateTime date = date(text(node, "date"));
+            if (date == null) {
+                return "invalid date";
+            }
+            Integer userId = resolveUser(text(node, "user"));
+            if (userId == null) {
+                return "unknown user " + text(node, "user");
+            }
+            Integer questionId = resolveQuestion(text(node, "question"));
+            if (questionId == null) {
+                return "unknown question " + text(node, "question");
+            }
+            appendRow(answerRows, answerIdAllocator.nextId(), uuid, answer, date, userId, questionId);
+            Integer count = answerCounts.get(questionId);
+            answerCounts.put(questionId, count == null ? 1 : count + 1);
+            answers++;
+            return null;
+        }
+
+        //Users and questions which are not part of this import, e.g. imported by an earlier run, are looked up once and remembered
+        private Integer resolveUser(final String uuid) {
+            if (uuid == null) {
+                return null;
+            }
+            Object key = key(uuid);
+            Integer id = userIds.get(key);
+            if (id == null) {
+                id = inTransaction(new TransactionCallback<Integer>() {
+                    @Override
+                    public Integer doInTransaction(final TransactionStatus status) {
+                        return contentImportDao.getUserId(uuid);
+                    }
+                });
+                if (id != null) {
+                    userIds.put(key, id);
+                }
+            }
+            return id;
+        }
+
+        private Integer resolveQuestion(final String uuid) {
+            if (uuid == null) {
+                return null;
+            }
+            Object key = key(uuid);
+            Integer id = questionIds.get(key);
+            if (id == null) {
+                id = inTransaction(new TransactionCallback<Integer>() {
+                    @Override
+                    public Integer doInTransaction(final TransactionStatus status) {
+                        return contentImportDao.getQuestionId(uuid);
+                    }
+                });
+                if (id != null) {
+                    questionIds.put(key, id);
+                }
+            }
+            return id;
+        }
+
+        /**
+         * Writes the rows of the chunk in one transaction, users before the questions and answers which may reference them.
+         */
+        private void flush(final long lineNumber) {
+            if (users + questions + answers == 0) {
+                return;
+            }
+            final List<Long> chunkQuestionIds = indexedIds;
+            final List<String> chunkQuestionContents = indexedContents;
+            final TreeMap<Integer, Integer> chunkAnswerCounts = answerCounts;
+            inTransaction(new TransactionCallback<Void>() {
+                @Override
+                public Void doInTransaction(final TransactionStatus status) {
+                    if (users > 0) {
+                        contentImportDao.copyIn(COPY_USERS, new StringReader(userRows.toString()));
+                    }
+                    if (questions > 0) {
+                        contentImportDao.copyIn(COPY_QUESTIONS, new StringReader(questionRows.toString()));
+                    }
+                    if (answers > 0) {
+                        contentImportDao.copyIn(COPY_ANSWERS, new StringReader(answerRows.toString()));
+                        //Question ids are in ascending order, the order in which the question rows are locked
+                        contentImportDao.addToAnswerCounts(chunkAnswerCounts.keySet().toArray(new Integer[0]),
+                                chunkAnswerCounts.values().toArray(new Integer[0]));
+                    }
+                    AfterCommit.run(new Runnable() {
+                        @Override
+                        public void run() {
+                            for (int i = 0; i < chunkQuestionIds.size(); i++) {
+                                questionSearchIndex.index(chunkQuestionIds.get(i), chunkQuestionContents.get(i));
+                            }
+                        }
+                    });
+                    return null;
+                }
+            });
+            progress.chunkCommitted(lineNumber, users, questions, answers);
+            LOGGER.info("Content import committed chunk {} up to line {}: {} users, {} questions, {} answers so far", progress.getChunksCommitted(),
+                    lineNumber, progress.getUsersImported(), progress.getQuestionsImported(), progress.getAnswersImported());
+
+            userRows.setLength(0);
+            questionRows.setLength(0);
+            answerRows.setLength(0);
+            users = 0;
+            questions = 0;
+            answers = 0;
+            answerCounts = new TreeMap<Integer, Integer>();
+            indexedIds = new ArrayList<Long>();
+            indexedContents = new ArrayList<String>();
+        }
+    }
+
+    /**
+     * Hands out the ids of the blocks drawn from a sequence, in the same way as the pooled optimizer of the entity id generators.
+     */
+    private final class IdAllocator {
+
+        private final String sequence;
+
+        private long[] blocks = new long[0];
+
+        private int nextBlock;
+
+        private long nextId = 1;
+
+        private long highId = 0;
+
+        private IdAllocator(final String sequence) {
+            this.sequence = sequence;
+        }
+
+        int nextId() {
+            while (nextId > highId) {
+                if (nextBlock == blocks.length) {
+                    blocks = inTransaction(new TransactionCallback<long[]>() {
+                        @Override
+                        public long[] doInTransaction(final TransactionStatus status) {
+                            return contentImportDao.nextIdBlocks(sequence, Math.max(1, chunkSize / ID_ALLOCATION_SIZE));
+                        }
+                    });
+                    nextBlock = 0;
+                }
+                highId = blocks[nextBlock++];
+                nextId = Math.max(1, highId - ID_ALLOCATION_SIZE + 1);
+            }
+            return (int) nextId++;
+        }
+    }
+
+    private <T> T inTransaction(final TransactionCallback<T> callback) {
+        return transactionTemplate.execute(callback);
+    }
+
+    private static String text(final JsonNode node, final String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String validate(final String field, final String value, final int maxLength, final boolean required) {
+        if (value == null || value.isEmpty()) {
+            return required ? "missing " + field : null;
+        }
+        return value.length() > maxLength ? field + " longer than " + maxLength : null;
+    }
+
+    private static String firstNonNull(final String first, final String second) {
+        return first != null ? first : second;
+    }
+
+    //Dates with an offset are moved to the zone of the server, the zone in which the TIMESTAMP columns are read back
+    private static LocalDateTime date(final String value) {
+        if (value == null) {
+            return LocalDateTime.now();
+        }
+        try {
+            return ZonedDateTime.parse(value).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static Object key(final String uuid) {
+        //Only the canonical form is converted, UUID.fromString would map differently written legacy uuids to the same key
+        if (uuid.length() != 36) {
+            return uuid;
+        }
+        try {
+            return UUID.fromString(uuid);
+        } catch (IllegalArgumentException e) {
+            return uuid;
+        }
+    }
+
+    //Rows in the CSV format of COPY, every value is quoted so that an unquoted empty field is the only NULL
+    private static void appendRow(final StringBuilder rows, final Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                rows.append(',');
+            }
+            if (values[i] != null) {
+                rows.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+            }
+        }
+        rows.append('\n');
+    }
+}
@@ -1,12 +1,14 @@
 package com.upgrad.quora.service.business;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.upgrad.quora.service.common.GenericErrorCode;
 import com.upgrad.quora.service.common.UnexpectedException;
 
 import java.time.ZonedDateTime;
-import java.time.temporal.ChronoField;
 import java.util.Date;
 import java.util.UUID;
 
@@ -16,17 +18,28 @@ import java.util.UUID;
 public class JwtTokenProvider {
     private static final String TOKEN_ISSUER = "https://quora.io";
 
+    //HMAC-SHA512 keys shorter than the 64 byte digest weaken the signature
+    private static final int MIN_SECRET_LENGTH = 64;
+
     private final Algorithm algorithm;
 
+    private final JWTVerifier verifier;
+
     /**
-     * A constructor for JwtTokenProvider class which receives user password as an argument to be used in the signature part of JWT access token.
+     * A constructor for JwtTokenProvider class which receives the secret to be used in the signature part of JWT access token.
+     * The verifier built here is immutable and thread-safe, so a single provider can verify tokens for every request.
+     * A missing or short secret is refused, so that a deployment never signs tokens with a guessable key.
      */
     public JwtTokenProvider(final String secret) {
+        if (secret == null || secret.trim().length() < MIN_SECRET_LENGTH) {
+            throw new IllegalArgumentException("The JWT secret must be at least " + MIN_SECRET_LENGTH + " characters long");
+        }
         try {
             algorithm = Algorithm.HMAC512(secret);
         } catch (IllegalArgumentException e) {
             throw new UnexpectedException(GenericErrorCode.GEN_001);
         }
+        verifier = JWT.require(algorithm).withIssuer(TOKEN_ISSUER).build();
     }
 
 
@@ -42,8 +55,8 @@ public class JwtTokenProvider {
      */
     public String generateToken(final String userUuid, final ZonedDateTime issuedDateTime, final ZonedDateTime expiresDateTime) {
 
-        final Date issuedAt = new Date(issuedDateTime.getLong(ChronoField.INSTANT_SECONDS));
-        final Date expiresAt = new Date(expiresDateTime.getLong(ChronoField.INSTANT_SECONDS));
+        final Date issuedAt = Date.from(issuedDateTime.toInstant());
+        final Date expiresAt = Date.from(expiresDateTime.toInstant());
 
         return JWT.create().withIssuer(TOKEN_ISSUER) //
                 .withKeyId(UUID.randomUUID().toString())
@@ -51,4 +64,24 @@ public class JwtTokenProvider {
                 .withIssuedAt(issuedAt).withExpiresAt(expiresAt).sign(algorithm);
     }
 
+    /**
+     * This method verifies the signature, issuer and expiry of the access token in memory, without any database lookup.
+     * The audience is only checked for presence here, it is matched against the uuid of the user once the token is resolved.
+     */
+    /**
+     * @param accessToken - access token sent by the client
+     * @return - decoded JWT token, or null if the token is malformed, forged, expired or has no audience
+     */
+    public DecodedJWT verifyToken(final String accessToken) {
+        try {
+            DecodedJWT decodedJWT = verifier.verify(accessToken);
+            if (decodedJWT.getAudience() == null || decodedJWT.getAudience().isEmpty()) {
+                return null;
+            }
+            return decodedJWT;
+        } catch (JWTVerificationException e) {
+            return null;
+        }
+    }
+
 }
@@ -1,48 +1,184 @@
 package com.upgrad.quora.service.business;
 
 
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
 import java.util.Random;
+import javax.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 
+/**
+ * Hashes passwords with PBKDF2WithHmacSHA512.
+ * Hashes are stored as "pbkdf2-sha512$iterations$keyLength$HEX" so that every stored hash records the parameters which produced it.
+ * Hashes without this prefix were produced by the legacy fixed parameters of 1000 iterations and a 64 bit key.
+ */
 @Component
 public class PasswordCryptographyProvider {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordCryptographyProvider.class);
+
     private static String SECRET_KEY_ALGORITHM = "PBKDF2WithHmacSHA512";
+    private static String HASH_FORMAT_ID = "pbkdf2-sha512";
     private static int HASHING_ITERATIONS = 1000;
     private static int HASHING_KEY_LENGTH = 64;
+    private static int CALIBRATION_SAMPLE_ITERATIONS = 20000;
+    private static int CALIBRATION_ROUNDS = 5;
     private final static char[] hexArray = "0123456789ABCDEF".toCharArray();
 
+    //SecretKeyFactory is not thread-safe and costly to look up, so each hashing thread keeps its own instance
+    private static final ThreadLocal<SecretKeyFactory> SECRET_KEY_FACTORY = new ThreadLocal<SecretKeyFactory>() {
+        @Override
+        protected SecretKeyFactory initialValue() {
+            try {
+                return SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    };
+
+    @Value("${quora.password.hashing.iterations:1000}")
+    private int iterations = HASHING_ITERATIONS;
+
+    @Value("${quora.password.hashing.key-length:64}")
+    private int keyLength = HASHING_KEY_LENGTH;
+
+    @Value("${quora.password.hashing.calibrate:false}")
+    private boolean calibrate;
+
+    @Value("${quora.password.hashing.target-millis:50}")
+    private long targetMillis;
+
+    /**
+     * When calibration is enabled, picks the iteration count which makes a single hash take the configured latency budget on this hardware.
+     * The configured iteration count is kept as the lower bound.
+     */
+    @PostConstruct
+    public void calibrate() {
+        if (!calibrate) {
+            return;
+        }
+        final char[] password = "calibration".toCharArray();
+        final byte[] salt = generateSaltBytes();
+        long bestNanos = Long.MAX_VALUE;
+        for (int round = 0; round < CALIBRATION_ROUNDS; round++) {
+            final long start = System.nanoTime();
+            hashPassword(password, salt, CALIBRATION_SAMPLE_ITERATIONS, keyLength);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        final long calibrated = targetMillis * 1000000L * CALIBRATION_SAMPLE_ITERATIONS / Math.max(bestNanos, 1);
+        final int roundedIterations = (int) Math.min(Integer.MAX_VALUE, calibrated / 1000 * 1000);
+        iterations = Math.max(iterations, roundedIterations);
+        LOGGER.info("Calibrated password hashing to {} iterations for a {} ms budget", iterations, targetMillis);
+    }
+
     /**
-     * This method generates Salt and hashed Password
+     * This method generates Salt and hashed Password with the current parameters
      *
      * @param password char array.
-     * @return String array with [0] encoded salt [1] hashed password.
+     * @return String array with [0] encoded salt [1] versioned hashed password.
      */
     public String[] encrypt(final String password) {
         byte[] salt = generateSaltBytes();
-        byte[] hashedPassword = hashPassword(password.toCharArray(), salt);
-        return new String[]{getBase64EncodedBytesAsString(salt), bytesToHex(hashedPassword)};
+        byte[] hashedPassword = hashPassword(password.toCharArray(), salt, iterations, keyLength);
+        return new String[]{getBase64EncodedBytesAsString(salt), currentHashPrefix() + bytesToHex(hashedPassword)};
     }
 
     /**
-     * This method re-generates hashed Password from raw-password and salt.
-     * This will be used during authentication.
+     * This method re-generates hashed Password from raw-password and salt with the legacy parameters.
      *
      * @param password char array.
      * @param salt     byte array.
      * @return byte array of hashed password.
      */
     public static String encrypt(final String password, String salt) {
-        return bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt)));
+        return bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt), HASHING_ITERATIONS, HASHING_KEY_LENGTH));
+    }
+
+    /**
+     * This method checks the raw-password against a stored hash, using the parameters recorded in the stored hash.
+     * This will be used during authentication.
+     *
+     * @param password   raw password.
+     * @param salt       encoded salt.
+     * @param storedHash versioned or legacy hashed password.
+     * @return true if the password matches.
+     */
+    public boolean matches(final String password, final String salt, final String storedHash) {
+        final byte[] expected;
+        final int hashIterations;
+        final int hashKeyLength;
+        if (storedHash.startsWith(HASH_FORMAT_ID + "$")) {
+            final int[] parameters = parseParameters(storedHash);
+            //A versioned hash with unreadable parameters matches no password
+            if (parameters == null) {
+                return false;
+            }
+            hashIterations = parameters[0];
+            hashKeyLength = parameters[1];
+            expected = storedHash.substring(storedHash.lastIndexOf('$') + 1).getBytes();
+        } else {
+            hashIterations = HASHING_ITERATIONS;
+            hashKeyLength = HASHING_KEY_LENGTH;
+            expected = storedHash.getBytes();
+        }
+        final String actual = bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt), hashIterations, hashKeyLength));
+        return MessageDigest.isEqual(expected, actual.getBytes());
+    }
+
+    /**
+     * The calibrated iteration count differs between nodes and restarts, so only hashes weaker than the current parameters are replaced,
+     * a hash produced with more iterations on faster hardware is kept.
+     *
+     * @param storedHash versioned or legacy hashed password.
+     * @return true if the stored hash was produced with fewer iterations or a shorter key than the current parameters.
+     */
+    public boolean needsRehash(final String storedHash) {
+        final int[] parameters = storedHash.startsWith(HASH_FORMAT_ID + "$") ? parseParameters(storedHash) : null;
+        return parameters == null || parameters[0] < iterations || parameters[1] < keyLength;
+    }
+
+    /**
+     * @return - iterations and key length recorded in a versioned hash, null if the hash is malformed
+     */
+    private static int[] parseParameters(final String storedHash) {
+        final String[] parts = storedHash.split("\\$");
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            final int hashIterations = Integer.parseInt(parts[1]);
+            final int hashKeyLength = Integer.parseInt(parts[2]);
+            if (hashIterations < 1 || hashKeyLength < 1) {
+                return null;
+            }
+            return new int[]{hashIterations, hashKeyLength};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String currentHashPrefix() {
+        return HASH_FORMAT_ID + "$" + iterations + "$" + keyLength + "$";
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getKeyLength() {
+        return keyLength;
     }
 
     /**
@@ -60,23 +196,29 @@ public class PasswordCryptographyProvider {
     /**
      * This method generates hashed Password
      *
-     * @param password char array.
-     * @param salt     byte array.
+     * @param password   char array.
+     * @param salt       byte array.
+     * @param iterations PBKDF2 iteration count.
+     * @param keyLength  key length in bits.
      * @return byte array of hashed password.
      */
-    private static byte[] hashPassword(final char[] password, final byte[] salt) {
+    private static byte[] hashPassword(final char[] password, final byte[] salt, final int iterations, final int keyLength) {
         try {
-            SecretKeyFactory skf = SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
-            PBEKeySpec spec = new PBEKeySpec(password, salt, HASHING_ITERATIONS, HASHING_KEY_LENGTH);
+            SecretKeyFactory skf = SECRET_KEY_FACTORY.get();
+            PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, keyLength);
             SecretKey key = skf.generateSecret(spec);
             byte[] res = key.getEncoded();
+            spec.clearPassword();
             return res;
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+        } catch (InvalidKeySpecException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private static String bytesToHex(byte[] bytes) {
+    /**
+     * Encodes the bytes as uppercase hex, the encoding of every stored password hash.
+     */
+    public static String bytesToHex(byte[] bytes) {
         char[] hexChars = new char[bytes.length * 2];
         for (int j = 0; j < bytes.length; j++) {
             int v = bytes[j] & 0xFF;
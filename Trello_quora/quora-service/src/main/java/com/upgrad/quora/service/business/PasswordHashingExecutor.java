@@ -0,0 +1,174 @@
+package com.upgrad.quora.service.business;
+
+
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import com.upgrad.quora.service.exception.HashingCapacityExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.text.MessageFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the PBKDF2 password hashing of sign up and sign in on a dedicated, bounded pool instead of the servlet threads.
+ * When the queue is full the request fails fast, so that a burst of sign in attempts cannot occupy every worker thread.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    @Autowired
+    private PasswordCryptographyProvider passwordCryptographyProvider;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long retryAfterSeconds;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private final AtomicLong completedCount = new AtomicLong();
+
+    private final AtomicLong totalHashNanos = new AtomicLong();
+
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    @Autowired
+    public PasswordHashingExecutor(@Value("${quora.password.hashing.threads:0}") final int threads,
+                                   @Value("${quora.password.hashing.queue-capacity:64}") final int queueCapacity,
+                                   @Value("${quora.password.hashing.retry-after-seconds:1}") final long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Generates a salt and hashes the password on the hashing pool.
+     *
+     * @return - String array with [0] encoded salt [1] hashed password.
+     */
+    public String[] encrypt(final String password) throws HashingCapacityExceededException {
+        return execute(new Callable<String[]>() {
+            @Override
+            public String[] call() {
+                return passwordCryptographyProvider.encrypt(password);
+            }
+        });
+    }
+
+    /**
+     * Re-generates the hashed password from the raw password and salt on the hashing pool.
+     */
+    public String encrypt(final String password, final String salt) throws HashingCapacityExceededException {
+        return execute(new Callable<String>() {
+            @Override
+            public String call() {
+                return PasswordCryptographyProvider.encrypt(password, salt);
+            }
+        });
+    }
+
+    /**
+     * Checks the raw password against the stored hash on the hashing pool.
+     */
+    public boolean matches(final String password, final String salt, final String storedHash) throws HashingCapacityExceededException {
+        return execute(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return passwordCryptographyProvider.matches(password, salt, storedHash);
+            }
+        });
+    }
+
+    private <T> T execute(final Callable<T> hashing) throws HashingCapacityExceededException {
+        Future<T> future;
+        try {
+            future = executor.submit(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    final long start = System.nanoTime();
+                    try {
+                        return hashing.call();
+                    } finally {
+                        recordLatency(System.nanoTime() - start);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            throw new HashingCapacityExceededException(GenericErrorCode.GEN_002.getCode(),
+                    MessageFormat.format(GenericErrorCode.GEN_002.getDefaultMessage(), retryAfterSeconds), retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        } catch (ExecutionException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e.getCause());
+        }
+    }
+
+    private void recordLatency(final long nanos) {
+        completedCount.incrementAndGet();
+        totalHashNanos.addAndGet(nanos);
+        long max = maxHashNanos.get();
+        while (nanos > max && !maxHashNanos.compareAndSet(max, nanos)) {
+            max = maxHashNanos.get();
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    public long getTotalHashNanos() {
+        return totalHashNanos.get();
+    }
+
+    public long getMaxHashNanos() {
+        return maxHashNanos.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.upgrad.quora.service.business;
+
+
+import com.upgrad.quora.service.common.AfterCommit;
+import com.upgrad.quora.service.common.QuestionCursor;
+import com.upgrad.quora.service.common.QuestionPage;
+import com.upgrad.quora.service.common.QuestionSummary;
+import com.upgrad.quora.service.common.UserPrincipal;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.QuestionRowHandler;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidBulkRequestException;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import com.upgrad.quora.service.search.QuestionSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+public class QuestionBusinessService {
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+
+    @Value("${quora.question.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${quora.question.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${quora.bulk.max-size:1000}")
+    private int maxBulkSize;
+
+    /**
+     * Resolves the bounds of the requested page of questions, newest first.
+     * The next cursor is known before any question is streamed, so it can be returned ahead of the response body.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public QuestionPage getQuestionPage(final String cursor, final Integer limit) throws InvalidCursorException {
+
+        QuestionCursor after = null;
+        if(cursor != null && !cursor.isEmpty()){
+            after = QuestionCursor.decode(cursor);
+            //Validate if the continuation token is well-formed
+            if(after == null){
+                throw new InvalidCursorException("PAGE-001","Entered continuation token is invalid");
+            }
+        }
+
+        int pageSize = limit == null ? defaultPageSize : limit;
+        //Validate if the page size is within the allowed range
+        if(pageSize < 1 || pageSize > maxPageSize){
+            throw new InvalidCursorException("PAGE-002","Page size must be between 1 and " + maxPageSize);
+        }
+
+        List<Object[]> boundary = questionDao.getPageBoundary(after, pageSize);
+        if(boundary.isEmpty()){
+            return new QuestionPage(after, null, false, pageSize);
+        }
+        return new QuestionPage(after, QuestionDao.toCursor(boundary.get(0)), boundary.size() > 1, pageSize);
+    }
+
+    /**
+     * Streams the questions of the page to the handler inside a read-only transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void streamQuestions(final QuestionPage page, final QuestionRowHandler handler) throws IOException {
+        questionDao.scrollQuestions(page.getAfter(), page.getLast(), page.getLimit(), handler);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED)
+    public QuestionEntity createQuestion(final UserPrincipal principal, final String content) {
+
+        QuestionEntity questionEntity = new QuestionEntity();
+        questionEntity.setUuid(UUID.randomUUID().toString());
+        questionEntity.setContent(content);
+        questionEntity.setDate(ZonedDateTime.now());
+        questionEntity.setUser(userDao.getUserReference(principal.getUserId()));
+        questionDao.createQuestion(questionEntity);
+
+        indexAfterCommit(questionEntity.getId(), content);
+        return questionEntity;
+    }
+
+    /**
+     * Creates all the questions in one transaction, inserted in JDBC batches.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public List<QuestionEntity> createQuestions(final UserPrincipal principal, final List<String> contents) throws InvalidBulkRequestException {
+
+        //Validate if the number of questions is within the allowed range
+        if(contents == null || contents.isEmpty() || contents.size() > maxBulkSize){
+            throw new InvalidBulkRequestException("BULK-001","Number of questions must be between 1 and " + maxBulkSize);
+        }
+
+        final ZonedDateTime now = ZonedDateTime.now();
+        List<QuestionEntity> questionEntities = new ArrayList<QuestionEntity>(contents.size());
+        for (String content : contents) {
+            QuestionEntity questionEntity = new QuestionEntity();
+            questionEntity.setUuid(UUID.randomUUID().toString());
+            questionEntity.setContent(content);
+            questionEntity.setDate(now);
+            questionEntity.setUser(userDao.getUserReference(principal.getUserId()));
+            questionEntities.add(questionEntity);
+        }
+        questionDao.createQuestions(questionEntities);
+
+        for (QuestionEntity questionEntity : questionEntities) {
+            indexAfterCommit(questionEntity.getId(), questionEntity.getContent());
+        }
+        return questionEntities;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED)
+    public QuestionEntity editQuestionContent(final UserPrincipal principal, final String questionUuid, final String content) throws AuthorizationFailedException, InvalidQuestionException {
+
+        QuestionEntity questionEntity = getQuestion(questionUuid);
+
+        //Validate if the signed in user owns the question
+        if(questionEntity.getUser().getId() != principal.getUserId()){
+            throw new AuthorizationFailedException("ATHR-003","Only the question owner can edit the question");
+        }
+
+        questionEntity.setContent(content);
+        QuestionEntity updatedQuestion = questionDao.updateQuestion(questionEntity);
+
+        indexAfterCommit(updatedQuestion.getId(), content);
+        return updatedQuestion;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED)
+    public QuestionEntity deleteQuestion(final UserPrincipal principal, final String questionUuid) throws AuthorizationFailedException, InvalidQuestionException {
+
+        QuestionEntity questionEntity = getQuestion(questionUuid);
+
+        //Validate if the signed in user owns the question or is an admin
+        if(questionEntity.getUser().getId() != principal.getUserId() && !principal.isAdmin()){
+            throw new AuthorizationFailedException("ATHR-003","Only the question owner or admin can delete the question");
+        }
+
+        questionDao.deleteQuestion(questionEntity);
+
+        final long questionId = questionEntity.getId();
+        AfterCommit.run(new Runnable() {
+            @Override
+            public void run() {
+                questionSearchIndex.remove(questionId);
+            }
+        });
+        return questionEntity;
+    }
+
+    /**
+     * Ranks the questions against the free text query with the in-memory index, only the hits are read from the database.
+     *
+     * @return - the best matching questions, best match first
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public List<QuestionSummary> searchQuestions(final String query, final int limit) {
+
+        long[] questionIds = questionSearchIndex.search(query, limit);
+        List<Long> ids = new ArrayList<Long>(questionIds.length);
+        for (long questionId : questionIds) {
+            ids.add(questionId);
+        }
+
+        Map<Long, QuestionSummary> summaries = new HashMap<Long, QuestionSummary>();
+        for (QuestionSummary summary : questionDao.getQuestionSummaries(ids)) {
+            summaries.put(summary.getId(), summary);
+        }
+
+        //Keep the rank order, questions deleted behind the index's back are skipped
+        List<QuestionSummary> hits = new ArrayList<QuestionSummary>(ids.size());
+        for (Long id : ids) {
+            QuestionSummary summary = summaries.get(id);
+            if(summary != null){
+                hits.add(summary);
+            }
+        }
+        return hits;
+    }
+
+    private QuestionEntity getQuestion(final String questionUuid) throws InvalidQuestionException {
+        QuestionEntity questionEntity = questionDao.getQuestionWithAuthor(questionUuid);
+
+        //Validate if question exists or not
+        if(questionEntity == null){
+            throw new InvalidQuestionException("QUES-001","Entered question uuid does not exist");
+        }
+        return questionEntity;
+    }
+
+    private void indexAfterCommit(final long questionId, final String content) {
+        AfterCommit.run(new Runnable() {
+            @Override
+            public void run() {
+                questionSearchIndex.index(questionId, content);
+            }
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.upgrad.quora.service.business;
+
+
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory set of signed out access tokens, keyed by the key id (a random UUID) of the JWT token.
+ * An entry is only kept until the token expires, after which the signature verification rejects the token on its own.
+ */
+@Component
+public class RevokedTokenRegistry {
+
+    private static final int PURGE_INTERVAL = 1024;
+
+    private final Map<UUID, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    private final AtomicInteger revocationsSincePurge = new AtomicInteger();
+
+    /**
+     * @param keyId     - key id of the signed out JWT token
+     * @param expiresAt - expiry time of the signed out JWT token
+     */
+    public void revoke(final String keyId, final Date expiresAt) {
+        UUID key = toKey(keyId);
+        if (key == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        revokedTokens.put(key, expiresAt.getTime());
+        //Only the thread which resets the counter purges, a plain reset would drop the increments racing it
+        int revocations = revocationsSincePurge.incrementAndGet();
+        if (revocations >= PURGE_INTERVAL && revocationsSincePurge.compareAndSet(revocations, 0)) {
+            purgeExpired();
+        }
+    }
+
+    public boolean isRevoked(final String keyId) {
+        UUID key = toKey(keyId);
+        return key != null && revokedTokens.containsKey(key);
+    }
+
+    public int size() {
+        return revokedTokens.size();
+    }
+
+    private void purgeExpired() {
+        final long now = System.currentTimeMillis();
+        Iterator<Long> iterator = revokedTokens.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() <= now) {
+                iterator.remove();
+            }
+        }
+    }
+
+    //Key ids are stored as UUIDs rather than strings to keep every entry at a fixed 16 bytes of payload
+    private static UUID toKey(final String keyId) {
+        if (keyId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(keyId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.upgrad.quora.service.business;
+
+
+import com.upgrad.quora.service.common.AnswerSearchHit;
+import com.upgrad.quora.service.common.QuestionSearchHit;
+import com.upgrad.quora.service.common.SearchCursor;
+import com.upgrad.quora.service.common.SearchPage;
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full text search of questions and answers ranked by the database, which keeps working when the application runs on several nodes.
+ */
+@Service
+public class SearchBusinessService {
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private AnswerDao answerDao;
+
+    @Value("${quora.search.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${quora.search.page.max-size:100}")
+    private int maxPageSize;
+
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public SearchPage<QuestionSearchHit> searchQuestions(final String query, final String cursor, final Integer limit) throws InvalidCursorException {
+
+        SearchCursor after = decodeCursor(cursor);
+        int pageSize = pageSize(limit);
+
+        //One hit more than the page is read to tell whether a next page exists
+        List<QuestionSearchHit> hits = questionDao.searchQuestions(query, after, pageSize + 1);
+        if(hits.size() <= pageSize){
+            return new SearchPage<QuestionSearchHit>(hits, null);
+        }
+        List<QuestionSearchHit> page = new ArrayList<QuestionSearchHit>(hits.subList(0, pageSize));
+        return new SearchPage<QuestionSearchHit>(page, page.get(pageSize - 1).toCursor().encode());
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public SearchPage<AnswerSearchHit> searchAnswers(final String query, final String cursor, final Integer limit) throws InvalidCursorException {
+
+        SearchCursor after = decodeCursor(cursor);
+        int pageSize = pageSize(limit);
+
+        //One hit more than the page is read to tell whether a next page exists
+        List<AnswerSearchHit> hits = answerDao.searchAnswers(query, after, pageSize + 1);
+        if(hits.size() <= pageSize){
+            return new SearchPage<AnswerSearchHit>(hits, null);
+        }
+        List<AnswerSearchHit> page = new ArrayList<AnswerSearchHit>(hits.subList(0, pageSize));
+        return new SearchPage<AnswerSearchHit>(page, page.get(pageSize - 1).toCursor().encode());
+    }
+
+    private SearchCursor decodeCursor(final String cursor) throws InvalidCursorException {
+        if(cursor == null || cursor.isEmpty()){
+            return null;
+        }
+        SearchCursor after = SearchCursor.decode(cursor);
+        //Validate if the continuation token is well-formed
+        if(after == null){
+            throw new InvalidCursorException("PAGE-001","Entered continuation token is invalid");
+        }
+        return after;
+    }
+
+    private int pageSize(final Integer limit) throws InvalidCursorException {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        //Validate if the page size is within the allowed range
+        if(pageSize < 1 || pageSize > maxPageSize){
+            throw new InvalidCursorException("PAGE-002","Page size must be between 1 and " + maxPageSize);
+        }
+        return pageSize;
+    }
+}
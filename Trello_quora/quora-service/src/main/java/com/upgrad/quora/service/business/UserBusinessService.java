@@ -2,35 +2,40 @@ package com.upgrad.quora.service.business;
 
 
 import com.upgrad.quora.service.dao.UserDao;
-import com.upgrad.quora.service.entity.UserAuthTokenEntity;
 import com.upgrad.quora.service.entity.UserEntity;
-import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.HashingCapacityExceededException;
+import com.upgrad.quora.service.exception.SignUpRestrictedException;
 import com.upgrad.quora.service.exception.UserNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
 
 @Service
 public class UserBusinessService {
 
+    private static final String NONADMIN_ROLE = "nonadmin";
+
     @Autowired
     private UserDao userDao;
 
-    @Transactional(propagation = Propagation.REQUIRED)
-    public UserEntity getUserDetails(final String userUuid, final String authorization) throws AuthorizationFailedException, UserNotFoundException {
+    @Autowired
+    private PasswordCryptographyProvider passwordCryptographyProvider;
 
-        UserAuthTokenEntity userAuthToken = userDao.getUserAuthToken(authorization);
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
 
-        //Validate if user is signed in or not
-        if(userAuthToken == null){
-            throw new AuthorizationFailedException("ATHR-001","User has not signed in");
-        }
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
-        //Validate if user has signed out
-        if(userAuthToken.getLogoutAt() != null){
-            throw new AuthorizationFailedException("ATHR-002","User is signed out.Sign in first to get user details");
-        }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public UserEntity getUserDetails(final String userUuid) throws UserNotFoundException {
 
         UserEntity userEntity = userDao.getUser(userUuid);
 
@@ -41,4 +46,79 @@ public class UserBusinessService {
 
         return userEntity;
     }
+
+    /**
+     * @return - the version of the user, which changes with every update of the user
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public int getUserVersion(final String userUuid) throws UserNotFoundException {
+
+        Integer version = userDao.getUserVersion(userUuid);
+
+        //validate if user exists or not
+        if(version == null){
+            throw new UserNotFoundException("USR-001","User with entered uuid does not exist");
+        }
+
+        return version;
+    }
+
+    /**
+     * Registers a new user. The password is hashed on the hashing pool before the transaction starts, so that no connection is held
+     * while it runs, and a full hashing queue fails the sign up with GEN-002 instead of blocking the request.
+     */
+    public UserEntity signup(final UserEntity userEntity, final String password) throws SignUpRestrictedException, HashingCapacityExceededException {
+
+        //Validate if the username is available
+        if(userDao.userNameExists(userEntity.getUserName())){
+            throw new SignUpRestrictedException("SGR-001","Try any other Username, this Username has already been taken");
+        }
+
+        //Validate if the email address is available
+        if(userDao.emailExists(userEntity.getEmail())){
+            throw new SignUpRestrictedException("SGR-002","This user has already been registered, try with any other emailId");
+        }
+
+        String[] encryptedText = passwordHashingExecutor.encrypt(password);
+        userEntity.setUuid(UUID.randomUUID().toString());
+        userEntity.setSalt(encryptedText[0]);
+        userEntity.setPassword(encryptedText[1]);
+        userEntity.setRole(NONADMIN_ROLE);
+
+        return transactionTemplate.execute(new TransactionCallback<UserEntity>() {
+            @Override
+            public UserEntity doInTransaction(final TransactionStatus status) {
+                return userDao.createUser(userEntity);
+            }
+        });
+    }
+
+    /**
+     * Checks the password entered at sign in against the stored hash of the user.
+     * On success, a hash produced with outdated parameters is transparently replaced by one with the current parameters.
+     * Both hashes are computed outside of any transaction, only the update of the replaced hash holds a connection.
+     */
+    public boolean verifyPassword(final UserEntity userEntity, final String password) throws HashingCapacityExceededException {
+
+        if(!passwordHashingExecutor.matches(password, userEntity.getSalt(), userEntity.getPassword())){
+            return false;
+        }
+
+        //Rehash with the current parameters now that the raw password is known
+        if(passwordCryptographyProvider.needsRehash(userEntity.getPassword())){
+            final String oldPassword = userEntity.getPassword();
+            final String[] encryptedText = passwordHashingExecutor.encrypt(password);
+            //Only the hash is written, the version of the user is left as is so that cached profiles stay valid
+            //A hash changed concurrently since it was read is not overwritten
+            transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(final TransactionStatus status) {
+                    userDao.updateUserPassword(userEntity.getId(), oldPassword, encryptedText[0], encryptedText[1]);
+                }
+            });
+            userEntity.setSalt(encryptedText[0]);
+            userEntity.setPassword(encryptedText[1]);
+        }
+        return true;
+    }
 }
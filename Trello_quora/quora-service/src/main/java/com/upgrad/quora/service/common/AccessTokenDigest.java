@@ -0,0 +1,43 @@
+package com.upgrad.quora.service.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Computes the fixed width SHA-256 digest under which access tokens are stored and looked up in USER_AUTH.
+ * The lowercase hex encoding matches encode(digest(access_token, 'sha256'), 'hex') used by the database migration.
+ */
+public final class AccessTokenDigest {
+
+    private static final char[] HEX_ARRAY = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+            }
+        }
+    };
+
+    private AccessTokenDigest() {
+    }
+
+    /**
+     * @param accessToken - access token sent by the client
+     * @return - 64 character lowercase hex SHA-256 digest of the access token
+     */
+    public static String of(final String accessToken) {
+        byte[] digest = SHA_256.get().digest(accessToken.getBytes(StandardCharsets.UTF_8));
+        char[] hexChars = new char[digest.length * 2];
+        for (int j = 0; j < digest.length; j++) {
+            int v = digest[j] & 0xFF;
+            hexChars[j * 2] = HEX_ARRAY[v >>> 4];
+            hexChars[j * 2 + 1] = HEX_ARRAY[v & 0x0F];
+        }
+        return new String(hexChars);
+    }
+}
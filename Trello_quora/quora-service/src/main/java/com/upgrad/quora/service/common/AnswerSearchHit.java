@@ -0,0 +1,50 @@
+package com.upgrad.quora.service.common;
+
+/**
+ * Read-only projection of an answer matching a full text search together with the content of its question,
+ * built directly from the search query without loading any entity.
+ */
+public final class AnswerSearchHit {
+
+    private final long id;
+
+    private final String uuid;
+
+    private final String answer;
+
+    private final String questionContent;
+
+    private final float rank;
+
+    public AnswerSearchHit(final Long id, final String uuid, final String answer, final String questionContent, final Float rank) {
+        this.id = id;
+        this.uuid = uuid;
+        this.answer = answer;
+        this.questionContent = questionContent;
+        this.rank = rank;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getAnswer() {
+        return answer;
+    }
+
+    public String getQuestionContent() {
+        return questionContent;
+    }
+
+    public float getRank() {
+        return rank;
+    }
+
+    public SearchCursor toCursor() {
+        return new SearchCursor(rank, id);
+    }
+}
@@ -0,0 +1,47 @@
+package com.upgrad.quora.service.common;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Read-only projection of an answer and its author, built directly by the listing query without loading any entity.
+ */
+public final class AnswerSummary {
+
+    private final String uuid;
+
+    private final String answer;
+
+    private final ZonedDateTime date;
+
+    private final String authorUuid;
+
+    private final String authorUserName;
+
+    public AnswerSummary(final String uuid, final String answer, final ZonedDateTime date, final String authorUuid, final String authorUserName) {
+        this.uuid = uuid;
+        this.answer = answer;
+        this.date = date;
+        this.authorUuid = authorUuid;
+        this.authorUserName = authorUserName;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getAnswer() {
+        return answer;
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+
+    public String getAuthorUuid() {
+        return authorUuid;
+    }
+
+    public String getAuthorUserName() {
+        return authorUserName;
+    }
+}
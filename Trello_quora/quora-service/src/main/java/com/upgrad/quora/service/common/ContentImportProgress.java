@@ -0,0 +1,122 @@
+package com.upgrad.quora.service.common;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of an NDJSON content import, updated by the import after every committed chunk and read by the status endpoint.
+ */
+public final class ContentImportProgress {
+
+    public enum Phase {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final int maxErrors;
+
+    private volatile Phase phase = Phase.RUNNING;
+
+    private final AtomicLong linesRead = new AtomicLong();
+
+    private final AtomicLong linesRejected = new AtomicLong();
+
+    private final AtomicLong usersImported = new AtomicLong();
+
+    private final AtomicLong questionsImported = new AtomicLong();
+
+    private final AtomicLong answersImported = new AtomicLong();
+
+    private final AtomicLong chunksCommitted = new AtomicLong();
+
+    //Last line of the stream whose rows are committed, an import which failed can be resumed from the line after it
+    private volatile long committedLine;
+
+    private final List<String> errors = new ArrayList<String>();
+
+    private final ZonedDateTime startedAt = ZonedDateTime.now();
+
+    private volatile ZonedDateTime updatedAt = startedAt;
+
+    public ContentImportProgress(final int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public void setPhase(final Phase phase) {
+        this.phase = phase;
+        this.updatedAt = ZonedDateTime.now();
+    }
+
+    public long getLinesRead() {
+        return linesRead.get();
+    }
+
+    public void setLinesRead(final long lines) {
+        linesRead.set(lines);
+    }
+
+    public long getLinesRejected() {
+        return linesRejected.get();
+    }
+
+    /**
+     * Counts the rejected line, only the first errors are kept so that a stream of bad lines cannot exhaust the memory.
+     */
+    public void reject(final long line, final String reason) {
+        linesRejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add("line " + line + ": " + reason);
+            }
+        }
+    }
+
+    public long getUsersImported() {
+        return usersImported.get();
+    }
+
+    public long getQuestionsImported() {
+        return questionsImported.get();
+    }
+
+    public long getAnswersImported() {
+        return answersImported.get();
+    }
+
+    public long getChunksCommitted() {
+        return chunksCommitted.get();
+    }
+
+    public long getCommittedLine() {
+        return committedLine;
+    }
+
+    public void chunkCommitted(final long line, final long users, final long questions, final long answers) {
+        usersImported.addAndGet(users);
+        questionsImported.addAndGet(questions);
+        answersImported.addAndGet(answers);
+        chunksCommitted.incrementAndGet();
+        committedLine = line;
+        updatedAt = ZonedDateTime.now();
+    }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return Collections.unmodifiableList(new ArrayList<String>(errors));
+        }
+    }
+
+    public ZonedDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -10,7 +10,14 @@ public enum GenericErrorCode implements ErrorCode {
      * <b>Cause:</b> This error could have occurred due to undetermined runtime errors.<br>
      * <b>Action: None</b><br>
      */
-    GEN_001("GEN-001", "An unexpected error occurred. Please contact System Administrator");
+    GEN_001("GEN-001", "An unexpected error occurred. Please contact System Administrator"),
+
+    /**
+     * Error message: <b>Server is busy, please retry after {0} second(s)</b><br>
+     * <b>Cause:</b> The password hashing queue is full.<br>
+     * <b>Action: Retry after the time given in the Retry-After header</b><br>
+     */
+    GEN_002("GEN-002", "Server is busy, please retry after {0} second(s)");
 
     private static final Map<String, GenericErrorCode> LOOKUP = new HashMap<String, GenericErrorCode>();
 
@@ -0,0 +1,60 @@
+package com.upgrad.quora.service.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+/**
+ * Position of a question in the (date, id) keyset ordering of the question listing.
+ * Clients only ever see the opaque, URL safe encoding returned by encode().
+ */
+public final class QuestionCursor {
+
+    private final ZonedDateTime date;
+
+    private final long id;
+
+    public QuestionCursor(final ZonedDateTime date, final long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return - opaque continuation token, the instant is kept with nanosecond precision so that rows sharing a timestamp are never skipped
+     */
+    public String encode() {
+        Instant instant = date.toInstant();
+        String key = instant.getEpochSecond() + "." + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token - continuation token returned by encode()
+     * @return - the decoded cursor, or null if the token is malformed
+     */
+    public static QuestionCursor decode(final String token) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int dot = key.indexOf('.');
+            int colon = key.indexOf(':');
+            if (dot < 0 || colon < dot) {
+                return null;
+            }
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(key.substring(0, dot)), Long.parseLong(key.substring(dot + 1, colon)));
+            return new QuestionCursor(ZonedDateTime.ofInstant(instant, ZoneId.systemDefault()), Long.parseLong(key.substring(colon + 1)));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return null;
+        }
+    }
+}
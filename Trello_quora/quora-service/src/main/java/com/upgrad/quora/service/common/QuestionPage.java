@@ -0,0 +1,42 @@
+package com.upgrad.quora.service.common;
+
+/**
+ * Bounds of one page of the question listing, resolved before the page is streamed.
+ * A page starts strictly after the "after" cursor and ends at the "last" cursor, a page without a last cursor is the final page.
+ */
+public final class QuestionPage {
+
+    private final QuestionCursor after;
+
+    private final QuestionCursor last;
+
+    private final boolean hasNext;
+
+    private final int limit;
+
+    public QuestionPage(final QuestionCursor after, final QuestionCursor last, final boolean hasNext, final int limit) {
+        this.after = after;
+        this.last = last;
+        this.hasNext = hasNext;
+        this.limit = limit;
+    }
+
+    public QuestionCursor getAfter() {
+        return after;
+    }
+
+    public QuestionCursor getLast() {
+        return last;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return - continuation token of the next page, or null if this is the final page
+     */
+    public String getNextCursor() {
+        return hasNext ? last.encode() : null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.upgrad.quora.service.common;
+
+/**
+ * Read-only projection of a question matching a full text search, built directly from the search query without loading any entity.
+ */
+public final class QuestionSearchHit {
+
+    private final long id;
+
+    private final String uuid;
+
+    private final String content;
+
+    private final float rank;
+
+    public QuestionSearchHit(final Long id, final String uuid, final String content, final Float rank) {
+        this.id = id;
+        this.uuid = uuid;
+        this.content = content;
+        this.rank = rank;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public float getRank() {
+        return rank;
+    }
+
+    public SearchCursor toCursor() {
+        return new SearchCursor(rank, id);
+    }
+}
@@ -0,0 +1,31 @@
+package com.upgrad.quora.service.common;
+
+/**
+ * Read-only projection of a question, built directly by the lookup query without loading any entity.
+ */
+public final class QuestionSummary {
+
+    private final long id;
+
+    private final String uuid;
+
+    private final String content;
+
+    public QuestionSummary(final Long id, final String uuid, final String content) {
+        this.id = id;
+        this.uuid = uuid;
+        this.content = content;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getContent() {
+        return content;
+    }
+}
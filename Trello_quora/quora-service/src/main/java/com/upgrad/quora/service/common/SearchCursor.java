@@ -0,0 +1,57 @@
+package com.upgrad.quora.service.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a hit in the (rank, id) keyset ordering of a full text search.
+ * Clients only ever see the opaque, URL safe encoding returned by encode().
+ */
+public final class SearchCursor {
+
+    private final float rank;
+
+    private final long id;
+
+    public SearchCursor(final float rank, final long id) {
+        this.rank = rank;
+        this.id = id;
+    }
+
+    public float getRank() {
+        return rank;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return - opaque continuation token, the rank is kept as its exact bit pattern so that it compares equal to the rank recomputed by the database
+     */
+    public String encode() {
+        String key = Integer.toHexString(Float.floatToIntBits(rank)) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token - continuation token returned by encode()
+     * @return - the decoded cursor, or null if the token is malformed
+     */
+    public static SearchCursor decode(final String token) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int colon = key.indexOf(':');
+            if (colon < 0) {
+                return null;
+            }
+            float rank = Float.intBitsToFloat(Integer.parseUnsignedInt(key.substring(0, colon), 16));
+            if (Float.isNaN(rank)) {
+                return null;
+            }
+            return new SearchCursor(rank, Long.parseLong(key.substring(colon + 1)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.upgrad.quora.service.common;
+
+import java.util.List;
+
+/**
+ * One page of full text search hits, best match first, with the continuation token of the next page.
+ */
+public final class SearchPage<T> {
+
+    private final List<T> hits;
+
+    private final String nextCursor;
+
+    public SearchPage(final List<T> hits, final String nextCursor) {
+        this.hits = hits;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getHits() {
+        return hits;
+    }
+
+    /**
+     * @return - continuation token of the next page, or null if this is the final page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,53 @@
+package com.upgrad.quora.service.common;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Read-only state of an access token and its user, built directly by the token lookup query.
+ * Immutable, so that a single cached instance is safely shared by concurrent requests.
+ */
+public final class UserAuthTokenSnapshot {
+
+    private final long userId;
+
+    private final String userUuid;
+
+    private final String role;
+
+    private final ZonedDateTime expiresAt;
+
+    private final boolean signedOut;
+
+    public UserAuthTokenSnapshot(final long userId, final String userUuid, final String role, final ZonedDateTime expiresAt,
+                                 final ZonedDateTime logoutAt) {
+        this.userId = userId;
+        this.userUuid = userUuid;
+        this.role = role;
+        this.expiresAt = expiresAt;
+        this.signedOut = logoutAt != null;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public ZonedDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isSignedOut() {
+        return signedOut;
+    }
+
+    public UserPrincipal toPrincipal() {
+        return new UserPrincipal(userId, userUuid, role, expiresAt);
+    }
+}
@@ -0,0 +1,54 @@
+package com.upgrad.quora.service.common;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Immutable identity of the signed in user making the current request, resolved once from the access token.
+ */
+public final class UserPrincipal implements Serializable {
+
+    private static final long serialVersionUID = -3914738912541908451L;
+
+    private static final String ADMIN_ROLE = "admin";
+
+    private final long userId;
+
+    private final String userUuid;
+
+    private final String role;
+
+    private final ZonedDateTime expiresAt;
+
+    public UserPrincipal(final long userId, final String userUuid, final String role, final ZonedDateTime expiresAt) {
+        this.userId = userId;
+        this.userUuid = userUuid;
+        this.role = role;
+        this.expiresAt = expiresAt;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public ZonedDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isAdmin() {
+        return ADMIN_ROLE.equals(role);
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{userId=" + userId + ", userUuid='" + userUuid + "', role='" + role + "', expiresAt=" + expiresAt + "}";
+    }
+}
@@ -0,0 +1,59 @@
+package com.upgrad.quora.service.common;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Progress of the background purge of a deleted user, as recorded in USER_PURGE by the node running the purge, read by the status endpoint.
+ */
+public final class UserPurgeProgress {
+
+    public enum Phase {
+        PENDING, ANSWERS, ANSWERS_TO_QUESTIONS, QUESTIONS, AUTH_TOKENS, COMPLETED, FAILED
+    }
+
+    private final String userUuid;
+
+    private final Phase phase;
+
+    private final long answersPurged;
+
+    private final long questionsPurged;
+
+    private final long authTokensPurged;
+
+    private final ZonedDateTime updatedAt;
+
+    public UserPurgeProgress(final String userUuid, final Phase phase, final long answersPurged, final long questionsPurged,
+                             final long authTokensPurged, final ZonedDateTime updatedAt) {
+        this.userUuid = userUuid;
+        this.phase = phase;
+        this.answersPurged = answersPurged;
+        this.questionsPurged = questionsPurged;
+        this.authTokensPurged = authTokensPurged;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public long getAnswersPurged() {
+        return answersPurged;
+    }
+
+    public long getQuestionsPurged() {
+        return questionsPurged;
+    }
+
+    public long getAuthTokensPurged() {
+        return authTokensPurged;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
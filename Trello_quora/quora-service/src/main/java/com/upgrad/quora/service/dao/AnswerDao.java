@@ -0,0 +1,154 @@
+package com.upgrad.quora.service.dao;
+
+
+import com.upgrad.quora.service.common.AnswerSearchHit;
+import com.upgrad.quora.service.common.AnswerSummary;
+import com.upgrad.quora.service.common.SearchCursor;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Repository
+public class AnswerDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
+    public AnswerEntity createAnswer(final AnswerEntity answerEntity){
+        entityManager.persist(answerEntity);
+        return answerEntity;
+    }
+
+    /**
+     * Persists the answers in JDBC batches, the persistence context is flushed and cleared after every batch so that it stays small.
+     */
+    public List<AnswerEntity> createAnswers(final List<AnswerEntity> answerEntities){
+        for (int i = 0; i < answerEntities.size(); i++) {
+            entityManager.persist(answerEntities.get(i));
+            if((i + 1) % jdbcBatchSize == 0){
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return answerEntities;
+    }
+
+    /**
+     * Scrolls forward only over every answer of the users which are not deleted, in id order, for a content export.
+     * Answers to the questions of deleted users are left out as well, as those questions are not exported and the answers could not be imported.
+     * Rows are read from a server side cursor as scalars, they are never attached to the persistence context.
+     */
+    public void scrollAnswerExport(final int fetchSize, final ContentExportHandler handler) throws IOException {
+        org.hibernate.query.Query<?> query = entityManager.createQuery("select a.uuid, a.answer, a.date, u.uuid, q.uuid from AnswerEntity a " +
+                "join a.user u join a.question q join q.user qu where u.deletedAt is null and qu.deletedAt is null order by a.id")
+                .unwrap(org.hibernate.query.Query.class);
+        ScrollableResults results = query.setFetchSize(fetchSize).setReadOnly(true).scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while(results.next()){
+                handler.answer((String) results.get(0), (String) results.get(1), (ZonedDateTime) results.get(2), (String) results.get(3), (String) results.get(4));
+            }
+        } finally {
+            results.close();
+        }
+    }
+
+    public void deleteAnswer(final AnswerEntity answerEntity){
+        entityManager.remove(answerEntity);
+    }
+
+    public List<Long> getAnswerIdsByUser(final long userId, final int limit){
+        return entityManager.createNamedQuery("answerIdsByUserId", Long.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public List<Long> getAnswerIdsToQuestionsOfUser(final long userId, final int limit){
+        return entityManager.createNamedQuery("answerIdsByQuestionUserId", Long.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Deletes the answers and uncounts them from their questions in one statement.
+     * Only the answers this statement actually deleted are uncounted, so concurrent deletes of the same answers never uncount them twice.
+     * The questions are locked first and in id order, as a single answer delete locks its question before the answer, so the two never deadlock.
+     *
+     * @return - number of answers deleted by this statement, selected from the delete as executeUpdate would count the updated questions
+     */
+    public int deleteAnswersAndSubtractCounts(final List<Long> answerIds){
+        entityManager.createNamedQuery("lockQuestionsOfAnswers")
+                .setParameter("ids", answerIds)
+                .getResultList();
+        Number deleted = (Number) entityManager.createNamedQuery("deleteAnswersAndSubtractCounts")
+                .setParameter("ids", answerIds)
+                .getSingleResult();
+        return deleted.intValue();
+    }
+
+    public int deleteAnswers(final List<Long> answerIds){
+        return entityManager.createNamedQuery("deleteAnswersByIds")
+                .setParameter("ids", answerIds)
+                .executeUpdate();
+    }
+
+    /**
+     * Returns the answer together with its author and question, used where the answer is changed on behalf of its question.
+     */
+    public AnswerEntity getAnswerWithAuthorAndQuestion(final String answerUuid){
+        return getAnswer(answerUuid, "answer.authorAndQuestion");
+    }
+
+    /**
+     * Lists the answers to a question, oldest first, in a single statement joining only the author columns of the projection.
+     */
+    public List<AnswerSummary> getAnswerSummaries(final long questionId){
+        return entityManager.createNamedQuery("answerSummariesByQuestionId", AnswerSummary.class)
+                .setParameter("questionId", questionId)
+                .getResultList();
+    }
+
+    /**
+     * Ranks the answers matching the full text query with the GIN indexed tsvector of the answers, best match first.
+     *
+     * @param after - position of the last hit of the previous page, or null for the first page
+     */
+    public List<AnswerSearchHit> searchAnswers(final String query, final SearchCursor after, final int limit){
+        Query searchQuery;
+        if(after == null){
+            searchQuery = entityManager.createNamedQuery("answerSearch");
+        }else{
+            searchQuery = entityManager.createNamedQuery("answerSearchAfter")
+                    .setParameter("afterRank", after.getRank())
+                    .setParameter("afterId", after.getId());
+        }
+        return searchQuery.setParameter("query", query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private AnswerEntity getAnswer(final String answerUuid, final String entityGraph){
+        try {
+            return entityManager.createNamedQuery("answerByUuid", AnswerEntity.class)
+                    .setHint(UserDao.FETCH_GRAPH, entityManager.getEntityGraph(entityGraph))
+                    .setParameter("uuid", answerUuid)
+                    .getSingleResult();
+        }catch (NoResultException nre){
+            return null;
+        }
+    }
+}
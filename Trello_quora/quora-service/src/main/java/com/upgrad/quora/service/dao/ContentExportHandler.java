@@ -0,0 +1,14 @@
+package com.upgrad.quora.service.dao;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+
+/**
+ * Receives the questions and answers of a content export one row at a time, so that no row outlives its own callback.
+ */
+public interface ContentExportHandler {
+
+    void question(String uuid, String content, ZonedDateTime date, String userUuid, int answerCount) throws IOException;
+
+    void answer(String uuid, String answer, ZonedDateTime date, String userUuid, String questionUuid) throws IOException;
+}
@@ -0,0 +1,107 @@
+package com.upgrad.quora.service.dao;
+
+
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.postgresql.PGConnection;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Writes imported content with the COPY protocol of PostgreSQL, on the JDBC connection of the current transaction.
+ */
+@Repository
+public class ContentImportDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Draws blocks of ids from the sequence, every value returned is the highest id of a block of the allocation size of the sequence.
+     */
+    public long[] nextIdBlocks(final String sequence, final int blocks){
+        return entityManager.unwrap(Session.class).doReturningWork(new ReturningWork<long[]>() {
+            @Override
+            public long[] execute(final Connection connection) throws SQLException {
+                long[] highIds = new long[blocks];
+                try (PreparedStatement statement = connection.prepareStatement("select nextval(?) from generate_series(1, ?)")) {
+                    statement.setString(1, sequence);
+                    statement.setInt(2, blocks);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        for (int i = 0; i < blocks && resultSet.next(); i++) {
+                            highIds[i] = resultSet.getLong(1);
+                        }
+                    }
+                }
+                return highIds;
+            }
+        });
+    }
+
+    /**
+     * @param copySql - COPY ... FROM STDIN statement naming the table and columns of the rows
+     * @param rows    - rows in the format of the COPY statement
+     * @return - number of rows copied
+     */
+    public long copyIn(final String copySql, final Reader rows){
+        return entityManager.unwrap(Session.class).doReturningWork(new ReturningWork<Long>() {
+            @Override
+            public Long execute(final Connection connection) throws SQLException {
+                try {
+                    return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql, rows);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds the number of imported answers to the answer count of every question, with a single statement.
+     */
+    public int addToAnswerCounts(final Integer[] questionIds, final Integer[] answerCounts){
+        return entityManager.unwrap(Session.class).doReturningWork(new ReturningWork<Integer>() {
+            @Override
+            public Integer execute(final Connection connection) throws SQLException {
+                Array ids = connection.createArrayOf("int4", questionIds);
+                Array counts = connection.createArrayOf("int4", answerCounts);
+                try (PreparedStatement statement = connection.prepareStatement("update QUESTION q set answer_count = q.answer_count + d.n " +
+                        "from unnest(?::int4[], ?::int4[]) as d(id, n) where q.id = d.id")) {
+                    statement.setArray(1, ids);
+                    statement.setArray(2, counts);
+                    return statement.executeUpdate();
+                } finally {
+                    ids.free();
+                    counts.free();
+                }
+            }
+        });
+    }
+
+    public Integer getUserId(final String userUuid){
+        return getId("select id from USERS where uuid = :uuid", userUuid);
+    }
+
+    public Integer getQuestionId(final String questionUuid){
+        return getId("select id from QUESTION where uuid = :uuid", questionUuid);
+    }
+
+    private Integer getId(final String sql, final String uuid){
+        List<?> ids = entityManager.createNativeQuery(sql)
+                .setParameter("uuid", uuid)
+                .setMaxResults(1)
+                .getResultList();
+        return ids.isEmpty() ? null : ((Number) ids.get(0)).intValue();
+    }
+}
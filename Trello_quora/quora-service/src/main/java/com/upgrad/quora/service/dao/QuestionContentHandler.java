@@ -0,0 +1,9 @@
+package com.upgrad.quora.service.dao;
+
+/**
+ * Receives the id and content of every question while the QUESTION table is scrolled, one row at a time.
+ */
+public interface QuestionContentHandler {
+
+    void handle(long id, String content);
+}
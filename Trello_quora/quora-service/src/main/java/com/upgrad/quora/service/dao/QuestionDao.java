@@ -0,0 +1,272 @@
+package com.upgrad.quora.service.dao;
+
+
+import com.upgrad.quora.service.common.QuestionCursor;
+import com.upgrad.quora.service.common.QuestionSearchHit;
+import com.upgrad.quora.service.common.QuestionSummary;
+import com.upgrad.quora.service.common.SearchCursor;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class QuestionDao {
+
+    private static final int SCROLL_FETCH_SIZE = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
+    public QuestionEntity createQuestion(final QuestionEntity questionEntity){
+        entityManager.persist(questionEntity);
+        return questionEntity;
+    }
+
+    /**
+     * Persists the questions in JDBC batches, the persistence context is flushed and cleared after every batch so that it stays small.
+     */
+    public List<QuestionEntity> createQuestions(final List<QuestionEntity> questionEntities){
+        for (int i = 0; i < questionEntities.size(); i++) {
+            entityManager.persist(questionEntities.get(i));
+            if((i + 1) % jdbcBatchSize == 0){
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return questionEntities;
+    }
+
+    public QuestionEntity updateQuestion(final QuestionEntity questionEntity){
+        return entityManager.merge(questionEntity);
+    }
+
+    public void deleteQuestion(final QuestionEntity questionEntity){
+        entityManager.remove(questionEntity);
+    }
+
+    /**
+     * Returns the question together with its author, used where the owner of the question has to be checked.
+     */
+    public QuestionEntity getQuestionWithAuthor(final String questionUuid){
+        try {
+            return entityManager.createNamedQuery("questionByUuid", QuestionEntity.class)
+                    .setHint(UserDao.FETCH_GRAPH, entityManager.getEntityGraph("question.author"))
+                    .setParameter("uuid", questionUuid)
+                    .getSingleResult();
+        }catch (NoResultException nre){
+            return null;
+        }
+    }
+
+    /**
+     * Returns the id and content of the question without loading the entity or its author, or null if the question does not exist.
+     */
+    public Object[] getQuestionSummary(final String questionUuid){
+        try {
+            return (Object[]) entityManager.createNamedQuery("questionSummaryByUuid")
+                    .setParameter("uuid", questionUuid)
+                    .getSingleResult();
+        }catch (NoResultException nre){
+            return null;
+        }
+    }
+
+    /**
+     * Returns the id, uuid and content of the questions with the given ids, in no particular order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<QuestionSummary> getQuestionSummaries(final List<Long> questionIds){
+        if(questionIds.isEmpty()){
+            return new ArrayList<QuestionSummary>();
+        }
+        return entityManager.createNamedQuery("questionSummariesByIds", QuestionSummary.class)
+                .setParameter("ids", questionIds)
+                .getResultList();
+    }
+
+    /**
+     * Returns a reference to the question without loading it, used to set the question of new answers.
+     */
+    public QuestionEntity getQuestionReference(final long questionId){
+        return entityManager.getReference(QuestionEntity.class, questionId);
+    }
+
+    /**
+     * Atomically adds the delta to the answer count of the question in the database.
+     * The question row stays locked until the transaction ends, so it has to be called before the answer itself is written.
+     */
+    public void addToAnswerCount(final long questionId, final int delta){
+        entityManager.createNamedQuery("addToAnswerCount")
+                .setParameter("delta", delta)
+                .setParameter("id", questionId)
+                .executeUpdate();
+    }
+
+    /**
+     * @return - the id closing the batch of questions following afterId, or null if no question follows it
+     */
+    public Long getQuestionIdBoundary(final long afterId, final int batchSize){
+        List<Long> boundary = entityManager.createNamedQuery("questionIdsAfter", Long.class)
+                .setParameter("afterId", afterId)
+                .setFirstResult(batchSize - 1)
+                .setMaxResults(1)
+                .getResultList();
+        return boundary.isEmpty() ? null : boundary.get(0);
+    }
+
+    /**
+     * Recounts the answers of the questions with afterId < id <= upToId and repairs the counts which drifted.
+     * The questions are locked first, so that no answer is created or deleted between the count and the repair.
+     *
+     * @return - number of repaired answer counts
+     */
+    public int reconcileAnswerCounts(final long afterId, final long upToId){
+        entityManager.createNamedQuery("lockQuestionsBetween")
+                .setParameter("afterId", afterId)
+                .setParameter("upToId", upToId)
+                .getResultList();
+        return entityManager.createNamedQuery("reconcileAnswerCounts")
+                .setParameter("afterId", afterId)
+                .setParameter("upToId", upToId)
+                .executeUpdate();
+    }
+
+    public List<Long> getQuestionIdsByUser(final long userId){
+        return entityManager.createNamedQuery("questionIdsByUserId", Long.class)
+                .setParameter("userId", userId)
+                .getResultList();
+    }
+
+    public List<Long> getQuestionIdsByUser(final long userId, final int limit){
+        return entityManager.createNamedQuery("questionIdsByUserId", Long.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public int deleteQuestions(final List<Long> questionIds){
+        return entityManager.createNamedQuery("deleteQuestionsByIds")
+                .setParameter("ids", questionIds)
+                .executeUpdate();
+    }
+
+    /**
+     * Scrolls forward only over the id and content of every question, used to build the search index without materializing the table.
+     */
+    public void scrollQuestionContents(final QuestionContentHandler handler){
+        Query<?> query = entityManager.createQuery("select q.id, q.content from QuestionEntity q").unwrap(Query.class);
+        ScrollableResults results = query.setFetchSize(SCROLL_FETCH_SIZE).setReadOnly(true).scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while(results.next()){
+                handler.handle((Long) results.get(0), (String) results.get(1));
+            }
+        } finally {
+            results.close();
+        }
+    }
+
+    /**
+     * Scrolls forward only over every question of the users which are not deleted, in id order, for a content export.
+     */
+    public void scrollQuestionExport(final int fetchSize, final ContentExportHandler handler) throws IOException {
+        Query<?> query = entityManager.createQuery("select q.uuid, q.content, q.date, u.uuid, q.answerCount from QuestionEntity q join q.user u " +
+                "where u.deletedAt is null order by q.id").unwrap(Query.class);
+        ScrollableResults results = query.setFetchSize(fetchSize).setReadOnly(true).scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while(results.next()){
+                handler.question((String) results.get(0), (String) results.get(1), (ZonedDateTime) results.get(2), (String) results.get(3), (Integer) results.get(4));
+            }
+        } finally {
+            results.close();
+        }
+    }
+
+    /**
+     * Returns the (date, id) keys at positions limit and limit + 1 after the cursor, i.e. the last question of the page and, if present, the first question of the next page.
+     * Only the keyset index and the users of the questions are read, and never more than limit + 1 of its entries.
+     * Questions of deleted users are skipped, the same as in scrollQuestions, so that a page holds limit questions.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getPageBoundary(final QuestionCursor after, final int limit){
+        javax.persistence.Query query;
+        if(after == null){
+            query = entityManager.createNamedQuery("questionKeys");
+        } else {
+            query = entityManager.createNamedQuery("questionKeysAfter")
+                    .setParameter("afterDate", after.getDate())
+                    .setParameter("afterId", after.getId());
+        }
+        return query.setFirstResult(limit - 1).setMaxResults(2).getResultList();
+    }
+
+    /**
+     * Scrolls forward only over the uuid, content and answer count of the questions of the users which are not deleted after the cursor, up to and including the last cursor.
+     * Rows are fetched from a server side cursor and never attached to the persistence context, so memory stays flat however large the page is.
+     */
+    public void scrollQuestions(final QuestionCursor after, final QuestionCursor last, final int limit, final QuestionRowHandler handler) throws IOException {
+        StringBuilder jpql = new StringBuilder("select q.uuid, q.content, q.answerCount from QuestionEntity q join q.user u where u.deletedAt is null");
+        if(after != null){
+            jpql.append(" and (q.date < :afterDate or (q.date = :afterDate and q.id < :afterId))");
+        }
+        if(last != null){
+            jpql.append(" and (q.date > :lastDate or (q.date = :lastDate and q.id >= :lastId))");
+        }
+        jpql.append(" order by q.date desc, q.id desc");
+
+        Query<?> query = entityManager.createQuery(jpql.toString()).unwrap(Query.class);
+        if(after != null){
+            query.setParameter("afterDate", after.getDate()).setParameter("afterId", after.getId());
+        }
+        if(last != null){
+            query.setParameter("lastDate", last.getDate()).setParameter("lastId", last.getId());
+        } else {
+            query.setMaxResults(limit);
+        }
+
+        ScrollableResults results = query.setFetchSize(SCROLL_FETCH_SIZE).setReadOnly(true).scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while(results.next()){
+                handler.handle((String) results.get(0), (String) results.get(1), (Integer) results.get(2));
+            }
+        } finally {
+            results.close();
+        }
+    }
+
+    public static QuestionCursor toCursor(final Object[] key){
+        return new QuestionCursor((ZonedDateTime) key[0], (Long) key[1]);
+    }
+
+    /**
+     * Ranks the questions matching the full text query with the GIN indexed tsvector of their content, best match first.
+     *
+     * @param after - position of the last hit of the previous page, or null for the first page
+     */
+    public List<QuestionSearchHit> searchQuestions(final String query, final SearchCursor after, final int limit){
+        javax.persistence.Query searchQuery;
+        if(after == null){
+            searchQuery = entityManager.createNamedQuery("questionSearch");
+        }else{
+            searchQuery = entityManager.createNamedQuery("questionSearchAfter")
+                    .setParameter("afterRank", after.getRank())
+                    .setParameter("afterId", after.getId());
+        }
+        return searchQuery.setParameter("query", query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,11 @@
+package com.upgrad.quora.service.dao;
+
+import java.io.IOException;
+
+/**
+ * Receives the questions of a scrolled listing one row at a time, so that no row outlives its own callback.
+ */
+public interface QuestionRowHandler {
+
+    void handle(String uuid, String content, int answerCount) throws IOException;
+}
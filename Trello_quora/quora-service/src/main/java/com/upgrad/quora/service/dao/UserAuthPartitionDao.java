@@ -0,0 +1,95 @@
+package com.upgrad.quora.service.dao;
+
+
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the daily range partitions of USER_AUTH, every partition holds the tokens expiring on one day.
+ */
+@Repository
+public class UserAuthPartitionDao {
+
+    static final String PARTITION_PREFIX = "user_auth_p";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    //Arbitrary key of the advisory lock serializing partition maintenance across the nodes sharing the database
+    private static final long MAINTENANCE_LOCK_KEY = 0x5155_4f52_4155_5448L;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Takes the transaction scoped advisory lock of partition maintenance.
+     *
+     * @return - false if another node holds the lock
+     */
+    public boolean tryLockMaintenance(){
+        return (Boolean) entityManager.createNativeQuery("select pg_try_advisory_xact_lock(:key)")
+                .setParameter("key", MAINTENANCE_LOCK_KEY)
+                .getSingleResult();
+    }
+
+    /**
+     * @return - the days of the existing daily partitions, the default partition is not listed
+     */
+    public List<LocalDate> getPartitionDays(){
+        List<?> names = entityManager.createNativeQuery("select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+                "join pg_class p on p.oid = i.inhparent where p.relname = 'user_auth'")
+                .getResultList();
+        List<LocalDate> days = new ArrayList<LocalDate>(names.size());
+        for (Object name : names) {
+            String relationName = name.toString();
+            if(relationName.startsWith(PARTITION_PREFIX)){
+                days.add(LocalDate.parse(relationName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX));
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Creates the partition of the tokens expiring on the day. The partition is built detached, filled with the rows of the day which
+     * landed in the default partition and only then attached, as a default partition holding rows of the range would refuse the partition.
+     *
+     * @return - number of rows moved out of the default partition
+     */
+    public int createPartition(final LocalDate day){
+        final String partition = partitionName(day);
+        entityManager.createNativeQuery("create table " + partition + " (like USER_AUTH including defaults including constraints)").executeUpdate();
+        int moved = entityManager.createNativeQuery("with moved as (delete from USER_AUTH_DEFAULT where EXPIRES_AT >= :lower and EXPIRES_AT < :upper " +
+                "returning ID, uuid, USER_ID, ACCESS_TOKEN, ACCESS_TOKEN_DIGEST, EXPIRES_AT, LOGIN_AT, LOGOUT_AT) " +
+                "insert into " + partition + " (ID, uuid, USER_ID, ACCESS_TOKEN, ACCESS_TOKEN_DIGEST, EXPIRES_AT, LOGIN_AT, LOGOUT_AT) " +
+                "select ID, uuid, USER_ID, ACCESS_TOKEN, ACCESS_TOKEN_DIGEST, EXPIRES_AT, LOGIN_AT, LOGOUT_AT from moved")
+                .setParameter("lower", Timestamp.valueOf(day.atStartOfDay()))
+                .setParameter("upper", Timestamp.valueOf(day.plusDays(1).atStartOfDay()))
+                .executeUpdate();
+        entityManager.createNativeQuery("alter table USER_AUTH attach partition " + partition +
+                " for values from ('" + day.atStartOfDay() + "') to ('" + day.plusDays(1).atStartOfDay() + "')").executeUpdate();
+        return moved;
+    }
+
+    public long countRows(final LocalDate day){
+        return ((Number) entityManager.createNativeQuery("select count(*) from " + partitionName(day)).getSingleResult()).longValue();
+    }
+
+    /**
+     * Drops the whole partition, which releases its storage without leaving dead rows behind for vacuum.
+     * A partition another node has dropped already is no error.
+     */
+    public void dropPartition(final LocalDate day){
+        entityManager.createNativeQuery("drop table if exists " + partitionName(day)).executeUpdate();
+    }
+
+    //Built from a formatted date only, so it is always a safe identifier
+    private static String partitionName(final LocalDate day){
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(day);
+    }
+}
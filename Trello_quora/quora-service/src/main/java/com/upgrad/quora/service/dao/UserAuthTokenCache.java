@@ -0,0 +1,251 @@
+package com.upgrad.quora.service.dao;
+
+
+import com.upgrad.quora.service.common.UserAuthTokenSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size bounded, TTL aware cache of the resolved access tokens, keyed by the access token sent in the authorization header.
+ * An entry never outlives the EXPIRES_AT of its token, and the least recently used entry is evicted once the cache is full.
+ * Entries are immutable snapshots shared by concurrent requests. Every invalidation records the generation at which it happened for
+ * its token or user, and a token looked up before the latest invalidation of the token or of its user is not cached, so that a lookup
+ * racing an invalidation cannot put the stale state of the token back while lookups of unrelated tokens are still cached.
+ */
+@Component
+public class UserAuthTokenCache {
+
+    private static final String TOKEN_KEY_PREFIX = "token:";
+
+    private static final String USER_KEY_PREFIX = "user:";
+
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LinkedHashMap<String, CachedToken> entries;
+
+    //Cached access tokens of every user, so that the tokens of a deleted user are found without a scan of the entries
+    private final Map<String, Set<String>> accessTokensByUser = new HashMap<String, Set<String>>();
+
+    //Generation of the latest invalidation of every recently invalidated token and user, oldest invalidation first
+    private final LinkedHashMap<String, Long> invalidations;
+
+    private long generation;
+
+    //Newest generation dropped from the invalidations, lookups taken before it can no longer be checked and are not cached
+    private long forgottenGeneration;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    @Autowired
+    public UserAuthTokenCache(@Value("${quora.auth.token-cache.max-size:10000}") final int maxSize,
+                              @Value("${quora.auth.token-cache.ttl-seconds:300}") final long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<String, CachedToken>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedToken> eldest) {
+                if (size() > UserAuthTokenCache.this.maxSize) {
+                    unindex(eldest.getKey(), eldest.getValue());
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.invalidations = new LinkedHashMap<String, Long>() {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Long> eldest) {
+                if (size() > UserAuthTokenCache.this.maxSize) {
+                    forgottenGeneration = Math.max(forgottenGeneration, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param accessToken - access token sent by the client
+     * @return - the cached token, or null when the token is not cached or its entry has expired
+     */
+    public UserAuthTokenSnapshot get(final String accessToken) {
+        final long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            CachedToken cachedToken = entries.get(accessToken);
+            if (cachedToken == null) {
+                missCount.incrementAndGet();
+                return null;
+            }
+            if (cachedToken.expiresAtMillis <= now) {
+                entries.remove(accessToken);
+                unindex(accessToken, cachedToken);
+                evictionCount.incrementAndGet();
+                missCount.incrementAndGet();
+                return null;
+            }
+            hitCount.incrementAndGet();
+            return cachedToken.userAuthToken;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return - the current generation, to be taken before the token is looked up and passed to put
+     */
+    public long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches the resolved token until the configured TTL or the EXPIRES_AT of the token, whichever comes first.
+     * Tokens which have already expired, and tokens looked up before the latest invalidation of the token or of its user, are not cached.
+     *
+     * @param generation - the generation taken before the token was looked up
+     */
+    public void put(final String accessToken, final UserAuthTokenSnapshot userAuthToken, final long generation) {
+        if (maxSize <= 0 || userAuthToken.getExpiresAt() == null) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final long expiresAtMillis = Math.min(now + ttlMillis, userAuthToken.getExpiresAt().toInstant().toEpochMilli());
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (generation < forgottenGeneration
+                    || invalidatedSince(TOKEN_KEY_PREFIX + accessToken, generation)
+                    || invalidatedSince(USER_KEY_PREFIX + userAuthToken.getUserUuid(), generation)) {
+                return;
+            }
+            CachedToken cachedToken = new CachedToken(userAuthToken, expiresAtMillis);
+            CachedToken replaced = entries.put(accessToken, cachedToken);
+            if (replaced != null) {
+                unindex(accessToken, replaced);
+            }
+            Set<String> accessTokens = accessTokensByUser.get(cachedToken.userUuid);
+            if (accessTokens == null) {
+                accessTokens = new HashSet<String>();
+                accessTokensByUser.put(cachedToken.userUuid, accessTokens);
+            }
+            accessTokens.add(accessToken);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the entry of a single access token, used when the token is signed out.
+     */
+    public void invalidate(final String accessToken) {
+        lock.lock();
+        try {
+            recordInvalidation(TOKEN_KEY_PREFIX + accessToken);
+            CachedToken cachedToken = entries.remove(accessToken);
+            if (cachedToken != null) {
+                unindex(accessToken, cachedToken);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every entry which belongs to the given user, used when the user is deleted.
+     */
+    public void invalidateUser(final String userUuid) {
+        lock.lock();
+        try {
+            recordInvalidation(USER_KEY_PREFIX + userUuid);
+            Set<String> accessTokens = accessTokensByUser.remove(userUuid);
+            if (accessTokens != null) {
+                for (String accessToken : accessTokens) {
+                    entries.remove(accessToken);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Called with the lock held, re-inserted so that the invalidations stay ordered by generation
+    private void recordInvalidation(final String key) {
+        generation++;
+        invalidations.remove(key);
+        invalidations.put(key, generation);
+    }
+
+    //Called with the lock held
+    private boolean invalidatedSince(final String key, final long generation) {
+        Long invalidatedAt = invalidations.get(key);
+        return invalidatedAt != null && invalidatedAt > generation;
+    }
+
+    //Called with the lock held
+    private void unindex(final String accessToken, final CachedToken cachedToken) {
+        Set<String> accessTokens = accessTokensByUser.get(cachedToken.userUuid);
+        if (accessTokens != null && accessTokens.remove(accessToken) && accessTokens.isEmpty()) {
+            accessTokensByUser.remove(cachedToken.userUuid);
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private static final class CachedToken {
+
+        private final UserAuthTokenSnapshot userAuthToken;
+
+        private final String userUuid;
+
+        private final long expiresAtMillis;
+
+        private CachedToken(final UserAuthTokenSnapshot userAuthToken, final long expiresAtMillis) {
+            this.userAuthToken = userAuthToken;
+            this.userUuid = userAuthToken.getUserUuid();
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
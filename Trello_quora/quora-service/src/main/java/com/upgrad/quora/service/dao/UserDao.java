@@ -1,20 +1,31 @@
 package com.upgrad.quora.service.dao;
 
 
+import com.upgrad.quora.service.common.AccessTokenDigest;
+import com.upgrad.quora.service.common.AfterCommit;
+import com.upgrad.quora.service.common.UserAuthTokenSnapshot;
 import com.upgrad.quora.service.entity.UserAuthTokenEntity;
 import com.upgrad.quora.service.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import java.time.ZonedDateTime;
+import java.util.List;
 
 @Repository
 public class UserDao {
 
+    static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private UserAuthTokenCache userAuthTokenCache;
+
     public UserEntity getUser(final String userUuid){
         try {
             return entityManager.createNamedQuery("userByUuid", UserEntity.class)
@@ -25,16 +36,159 @@ public class UserDao {
         }
     }
 
-    public UserAuthTokenEntity getUserAuthToken(final String accessToken){
+    public UserEntity getUserByUserName(final String userName){
         try {
-            return entityManager.createNamedQuery("userAuthTokenByAccessToken",UserAuthTokenEntity.class)
-                    .setParameter("accessToken", accessToken).getSingleResult();
+            return entityManager.createNamedQuery("userByUserName", UserEntity.class)
+                    .setParameter("userName", userName)
+                    .getSingleResult();
         }catch (NoResultException nre){
             return null;
         }
     }
 
-    public void deleteUser(final String userUuid){
-        UserEntity userEntity = getUser(userUuid);
-        entityManager.remove(userEntity);
-    }}
+    /**
+     * Deleted users are counted as well, their username stays taken until their row is purged.
+     */
+    public boolean userNameExists(final String userName){
+        return entityManager.createNamedQuery("userCountByUserName", Long.class)
+                .setParameter("userName", userName)
+                .getSingleResult() > 0;
+    }
+
+    /**
+     * Deleted users are counted as well, their email address stays taken until their row is purged.
+     */
+    public boolean emailExists(final String email){
+        return entityManager.createNamedQuery("userCountByEmail", Long.class)
+                .setParameter("email", email)
+                .getSingleResult() > 0;
+    }
+
+    public UserEntity createUser(final UserEntity userEntity){
+        entityManager.persist(userEntity);
+        return userEntity;
+    }
+
+    public UserAuthTokenEntity createAuthToken(final UserAuthTokenEntity userAuthTokenEntity){
+        entityManager.persist(userAuthTokenEntity);
+        return userAuthTokenEntity;
+    }
+
+    /**
+     * Reads only the version of the user, to answer conditional requests without loading the user.
+     */
+    public Integer getUserVersion(final String userUuid){
+        try {
+            return entityManager.createNamedQuery("userVersionByUuid", Integer.class)
+                    .setParameter("uuid", userUuid)
+                    .getSingleResult();
+        }catch (NoResultException nre){
+            return null;
+        }
+    }
+
+    /**
+     * Returns a reference to the user without loading it, used to set the author of new questions and answers.
+     */
+    public UserEntity getUserReference(final long userId){
+        return entityManager.getReference(UserEntity.class, userId);
+    }
+
+    //A bulk update leaves the version of the user, and with it the ETag of the profile, unchanged
+    public boolean updateUserPassword(final long userId, final String oldPassword, final String salt, final String password){
+        return entityManager.createNamedQuery("updateUserPassword")
+                .setParameter("id", userId)
+                .setParameter("oldPassword", oldPassword)
+                .setParameter("salt", salt)
+                .setParameter("password", password)
+                .executeUpdate() > 0;
+    }
+
+    public UserAuthTokenSnapshot getUserAuthToken(final String accessToken){
+        UserAuthTokenSnapshot cachedAuthToken = userAuthTokenCache.get(accessToken);
+        if(cachedAuthToken != null){
+            return cachedAuthToken;
+        }
+        //Taken before the lookup, so that a token invalidated while it is looked up is not cached with its stale state
+        final long generation = userAuthTokenCache.generation();
+        try {
+            UserAuthTokenSnapshot userAuthToken = entityManager.createNamedQuery("userAuthTokenSnapshotByAccessToken", UserAuthTokenSnapshot.class)
+                    .setParameter("accessTokenDigest", AccessTokenDigest.of(accessToken)).getSingleResult();
+            userAuthTokenCache.put(accessToken, userAuthToken, generation);
+            return userAuthToken;
+        }catch (NoResultException nre){
+            return null;
+        }
+    }
+
+    public UserAuthTokenEntity getUserAuthTokenEntity(final String accessToken){
+        try {
+            return entityManager.createNamedQuery("userAuthTokenByAccessToken", UserAuthTokenEntity.class)
+                    .setParameter("accessTokenDigest", AccessTokenDigest.of(accessToken)).getSingleResult();
+        }catch (NoResultException nre){
+            return null;
+        }
+    }
+
+    public UserAuthTokenEntity updateUserAuthToken(final UserAuthTokenEntity userAuthToken){
+        final String accessToken = userAuthToken.getAccessToken();
+        UserAuthTokenEntity updatedAuthToken = entityManager.merge(userAuthToken);
+        userAuthTokenCache.invalidate(accessToken);
+        //Invalidate again once the transaction commits, so that a token re-cached by a concurrent request before the commit does not survive it
+        AfterCommit.run(new Runnable() {
+            @Override
+            public void run() {
+                userAuthTokenCache.invalidate(accessToken);
+            }
+        });
+        return updatedAuthToken;
+    }
+
+    public UserEntity getUserIncludingDeleted(final String userUuid){
+        try {
+            return entityManager.createNamedQuery("userByUuidIncludingDeleted", UserEntity.class)
+                    .setParameter("uuid", userUuid)
+                    .getSingleResult();
+        }catch (NoResultException nre){
+            return null;
+        }
+    }
+
+    /**
+     * Marks the user as deleted, the user can no longer sign in or be looked up while the rows of the user are purged.
+     */
+    public void markUserDeleted(final UserEntity userEntity){
+        final String userUuid = userEntity.getUuid();
+        userEntity.setDeletedAt(ZonedDateTime.now());
+        entityManager.merge(userEntity);
+        userAuthTokenCache.invalidateUser(userUuid);
+        AfterCommit.run(new Runnable() {
+            @Override
+            public void run() {
+                userAuthTokenCache.invalidateUser(userUuid);
+            }
+        });
+    }
+
+    public List<Long> getUserAuthTokenIdsByUser(final long userId, final int limit){
+        return entityManager.createNamedQuery("userAuthTokenIdsByUserId", Long.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public int deleteUserAuthTokens(final List<Long> userAuthTokenIds){
+        return entityManager.createNamedQuery("deleteUserAuthTokensByIds")
+                .setParameter("ids", userAuthTokenIds)
+                .executeUpdate();
+    }
+
+    /**
+     * Deletes the row of a purged user, all dependent rows are expected to be gone already.
+     */
+    public void deleteUser(final long userId){
+        entityManager.createNamedQuery("deleteUserById")
+                .setParameter("id", userId)
+                .executeUpdate();
+    }
+}
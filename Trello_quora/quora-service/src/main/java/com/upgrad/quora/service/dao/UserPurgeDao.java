@@ -0,0 +1,81 @@
+package com.upgrad.quora.service.dao;
+
+
+import com.upgrad.quora.service.common.UserPurgeProgress;
+import com.upgrad.quora.service.entity.UserPurgeEntity;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Queue of the purges of deleted users in USER_PURGE, shared by the nodes running UserPurgeJob.
+ */
+@Repository
+public class UserPurgeDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void createUserPurge(final UserPurgeEntity userPurgeEntity){
+        entityManager.persist(userPurgeEntity);
+    }
+
+    public UserPurgeEntity getUserPurge(final String userUuid){
+        try {
+            return entityManager.createNamedQuery("userPurgeByUserUuid", UserPurgeEntity.class)
+                    .setParameter("userUuid", userUuid)
+                    .getSingleResult();
+        }catch (NoResultException nre){
+            return null;
+        }
+    }
+
+    /**
+     * Claims the purge due next which no other node holds a lease on, the row stays locked until the transaction ends.
+     *
+     * @return - the claimed purge, or null if no purge is due
+     */
+    public UserPurgeEntity claimUserPurge(final ZonedDateTime now, final ZonedDateTime claimedUntil){
+        List<?> purges = entityManager.createNamedQuery("claimableUserPurge")
+                .setParameter("now", Timestamp.from(now.toInstant()))
+                .getResultList();
+        if(purges.isEmpty()){
+            return null;
+        }
+        UserPurgeEntity userPurgeEntity = (UserPurgeEntity) purges.get(0);
+        userPurgeEntity.setClaimedUntil(claimedUntil);
+        userPurgeEntity.setUpdatedAt(now);
+        return userPurgeEntity;
+    }
+
+    /**
+     * Adds the rows purged by a batch to the progress of the purge and renews the lease, in the transaction of the batch.
+     */
+    public void recordBatch(final String userUuid, final UserPurgeProgress.Phase phase, final int answers, final int questions,
+                            final int authTokens, final ZonedDateTime claimedUntil){
+        entityManager.createNamedQuery("recordUserPurgeBatch")
+                .setParameter("phase", phase)
+                .setParameter("answers", (long) answers)
+                .setParameter("questions", (long) questions)
+                .setParameter("authTokens", (long) authTokens)
+                .setParameter("claimedUntil", claimedUntil)
+                .setParameter("updatedAt", ZonedDateTime.now())
+                .setParameter("userUuid", userUuid)
+                .executeUpdate();
+    }
+
+    /**
+     * Deletes the purges which completed before the cutoff, their status is no longer reported.
+     */
+    public int deleteEndedUserPurges(final ZonedDateTime cutoff){
+        return entityManager.createNamedQuery("deleteEndedUserPurges")
+                .setParameter("phase", UserPurgeProgress.Phase.COMPLETED)
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+    }
+}
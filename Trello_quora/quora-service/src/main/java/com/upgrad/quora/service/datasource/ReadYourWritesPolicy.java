@@ -0,0 +1,76 @@
+package com.upgrad.quora.service.datasource;
+
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Staleness policy of replica reads: for a window after a user has committed a write, the read-only transactions of that user
+ * are kept on the primary, so that a user always reads back their own writes however far the replicas lag behind.
+ * The user of the current request is bound to the request thread by the web layer.
+ */
+@Component
+public class ReadYourWritesPolicy {
+
+    private static final int PURGE_INTERVAL = 1024;
+
+    private final ThreadLocal<String> currentUser = new ThreadLocal<String>();
+
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    private final AtomicInteger writesSincePurge = new AtomicInteger();
+
+    @Value("${quora.datasource.replicas.read-your-writes-seconds:5}")
+    private long windowSeconds;
+
+    public void bind(final String userUuid) {
+        currentUser.set(userUuid);
+    }
+
+    public void unbind() {
+        currentUser.remove();
+    }
+
+    /**
+     * Records a committed write of the user bound to the current thread.
+     */
+    public void recordWrite() {
+        String user = currentUser.get();
+        if (user == null || windowSeconds <= 0) {
+            return;
+        }
+        lastWriteByUser.put(user, System.currentTimeMillis());
+        //Only the thread which resets the counter purges, a plain reset would drop the increments racing it
+        int writes = writesSincePurge.incrementAndGet();
+        if (writes >= PURGE_INTERVAL && writesSincePurge.compareAndSet(writes, 0)) {
+            purgeExpired();
+        }
+    }
+
+    /**
+     * @return - true if the user bound to the current thread wrote within the window, and has to read from the primary
+     */
+    public boolean mustReadPrimary() {
+        String user = currentUser.get();
+        if (user == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(user);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < windowSeconds * 1000;
+    }
+
+    private void purgeExpired() {
+        final long expired = System.currentTimeMillis() - windowSeconds * 1000;
+        Iterator<Long> iterator = lastWriteByUser.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() <= expired) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.upgrad.quora.service.datasource;
+
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single data source by a primary and a pool per replica when replica urls are configured.
+ * Without quora.datasource.replicas.urls the data source auto-configured from spring.datasource is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "quora.datasource.replicas", name = "urls")
+public class ReplicaDataSourceConfiguration {
+
+    /**
+     * The pools are not beans of their own, so spring.datasource.hikari is bound onto each of them here as Spring Boot binds it onto
+     * its own pool, and they are bound to the meter registry here rather than by the pool metrics of Spring Boot.
+     * Replicas wait a shorter time for a connection than the primary, so that the reads of an unreachable replica fail over quickly.
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(final DataSourceProperties properties, final ReadYourWritesPolicy readYourWritesPolicy,
+                                                             final ObjectProvider<MeterRegistry> meterRegistry, final Environment environment,
+                                                             @Value("${quora.datasource.replicas.urls}") final String[] urls,
+                                                             @Value("${quora.datasource.replicas.pool-size:10}") final int poolSize,
+                                                             @Value("${quora.datasource.replicas.connection-timeout-ms:1000}") final long connectionTimeoutMillis,
+                                                             @Value("${quora.datasource.replicas.max-lag-seconds:10}") final double maxLagSeconds) {
+        final Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = createPool(properties, binder);
+        primary.setPoolName("quora-primary");
+        bindMetrics(primary, meterRegistry.getIfAvailable());
+
+        List<DataSource> replicas = new ArrayList<DataSource>(urls.length);
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = createPool(properties, binder);
+            replica.setJdbcUrl(urls[i].trim());
+            replica.setPoolName("quora-replica-" + i);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(connectionTimeoutMillis);
+            replica.setReadOnly(true);
+            bindMetrics(replica, meterRegistry.getIfAvailable());
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWritesPolicy, maxLagSeconds);
+    }
+
+    /**
+     * The data source of JPA, connections are only fetched from the routing data source on the first statement of a transaction,
+     * when the transaction has already been marked read-only or not.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(final ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static HikariDataSource createPool(final DataSourceProperties properties, final Binder binder) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        return pool;
+    }
+
+    private void bindMetrics(final HikariDataSource pool, final MeterRegistry meterRegistry) {
+        if (meterRegistry != null) {
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+    }
+}
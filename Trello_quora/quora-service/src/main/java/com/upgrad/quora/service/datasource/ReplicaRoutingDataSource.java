@@ -0,0 +1,191 @@
+package com.upgrad.quora.service.datasource;
+
+
+import com.upgrad.quora.service.common.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes the connections of read-only transactions to the healthy replicas in turn, and every other connection to the primary.
+ * The routing decision is taken when a connection is requested, so this data source has to sit behind a LazyConnectionDataSourceProxy
+ * for the read-only flag of a transaction to be known by then.
+ * A replica is taken out of rotation when it cannot be reached or lags more than the allowed seconds behind, and its reads fail over to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    //Zero while the replica has replayed all the WAL it received, so that an idle primary does not read as replication lag
+    private static final String REPLICATION_LAG = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+            "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final ReadYourWritesPolicy readYourWritesPolicy;
+
+    private final double maxLagSeconds;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(final DataSource primary, final List<DataSource> replicaDataSources,
+                                    final ReadYourWritesPolicy readYourWritesPolicy, final double maxLagSeconds) {
+        this.primary = primary;
+        this.readYourWritesPolicy = readYourWritesPolicy;
+        this.maxLagSeconds = maxLagSeconds;
+
+        Map<Object, Object> targetDataSources = new HashMap<Object, Object>();
+        targetDataSources.put(PRIMARY, primary);
+        List<Replica> replicaList = new ArrayList<Replica>(replicaDataSources.size());
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            replicaList.add(replica);
+            targetDataSources.put(replica.name, replica.dataSource);
+        }
+        this.replicas = replicaList;
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                AfterCommit.run(new Runnable() {
+                    @Override
+                    public void run() {
+                        readYourWritesPolicy.recordWrite();
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (readYourWritesPolicy.mustReadPrimary()) {
+            return PRIMARY;
+        }
+        Replica replica = nextHealthyReplica();
+        return replica == null ? PRIMARY : replica.name;
+    }
+
+    /**
+     * Fails over to the primary when the chosen replica cannot hand out a connection, the replica stays out of rotation until it is healthy again.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return primary.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            for (Replica replica : replicas) {
+                if (replica.dataSource == target) {
+                    replica.markUnhealthy("connection failed: " + e.getMessage());
+                }
+            }
+            return primary.getConnection();
+        }
+    }
+
+    private Replica nextHealthyReplica() {
+        final int start = nextReplica.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Probes every replica for its replication lag, taking unreachable or lagging replicas out of rotation and putting recovered ones back.
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(REPLICATION_LAG)) {
+                resultSet.next();
+                final double lagSeconds = resultSet.getDouble(1);
+                if (lagSeconds > maxLagSeconds) {
+                    replica.markUnhealthy("lagging " + lagSeconds + " seconds");
+                } else {
+                    replica.markHealthy();
+                }
+            } catch (SQLException e) {
+                replica.markUnhealthy("health check failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public int getHealthyReplicas() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                ((Closeable) replica.dataSource).close();
+            }
+        }
+        if (primary instanceof Closeable) {
+            ((Closeable) primary).close();
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean healthy = true;
+
+        private Replica(final String name, final DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void markUnhealthy(final String reason) {
+            if (healthy) {
+                LOGGER.warn("Taking {} out of rotation, {}", name, reason);
+            }
+            healthy = false;
+        }
+
+        void markHealthy() {
+            if (!healthy) {
+                LOGGER.info("Putting {} back into rotation", name);
+            }
+            healthy = true;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.upgrad.quora.service.datasource;
+
+
+import com.upgrad.quora.service.exception.SqlBudgetExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statement budgets of the endpoints. The web layer starts the statistics of a request on the request thread and stops them
+ * once the request completes, every statement the thread executes in between is counted against the budget of the endpoint.
+ * A request over its budget is logged, or failed before the statement over the budget is executed when quora.sql.budget.fail is set.
+ */
+@Component
+public class SqlStatementBudget {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlStatementBudget.class);
+
+    private final ThreadLocal<SqlStatistics> currentStatistics = new ThreadLocal<SqlStatistics>();
+
+    private final Map<String, Integer> endpointBudgets = new HashMap<String, Integer>();
+
+    @Value("${quora.sql.budget.default-statements:20}")
+    private int defaultStatements;
+
+    //Budgets of single endpoints as "<METHOD> <path pattern>=<statements>"
+    @Value("${quora.sql.budget.endpoints:}")
+    private String[] endpoints;
+
+    @Value("${quora.sql.budget.fail:false}")
+    private boolean fail;
+
+    @Value("${quora.sql.budget.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    @PostConstruct
+    public void parseEndpointBudgets() {
+        for (String endpoint : endpoints) {
+            final int separator = endpoint.lastIndexOf('=');
+            if (separator > 0) {
+                endpointBudgets.put(endpoint.substring(0, separator).trim(), Integer.parseInt(endpoint.substring(separator + 1).trim()));
+            }
+        }
+    }
+
+    /**
+     * @param endpoint - request method and path pattern of the endpoint, as in "GET /question/all"
+     */
+    public void start(final String endpoint) {
+        Integer budget = endpointBudgets.get(endpoint);
+        currentStatistics.set(new SqlStatistics(endpoint, budget == null ? defaultStatements : budget));
+    }
+
+    /**
+     * @return - statistics of the request on the current thread, null if none was started
+     */
+    public SqlStatistics stop() {
+        SqlStatistics statistics = currentStatistics.get();
+        if (statistics == null) {
+            return null;
+        }
+        currentStatistics.remove();
+        if (statistics.isOverBudget()) {
+            LOGGER.warn("Statement budget exceeded by {}", statistics);
+        } else {
+            LOGGER.debug("{}", statistics);
+        }
+        if (statistics.getMostRepeatedCount() >= repeatThreshold) {
+            LOGGER.warn("Possible N+1 select in {}, executed {} times: {}", statistics.getEndpoint(),
+                    statistics.getMostRepeatedCount(), statistics.getMostRepeatedSql());
+        }
+        return statistics;
+    }
+
+    void beforeQuery() {
+        SqlStatistics statistics = currentStatistics.get();
+        if (statistics == null) {
+            return;
+        }
+        if (fail && statistics.getStatements() >= statistics.getStatementBudget()) {
+            throw new SqlBudgetExceededException("SQL-001", statistics.getEndpoint() + " exceeded its budget of "
+                    + statistics.getStatementBudget() + " statements");
+        }
+        statistics.queryStarted();
+    }
+
+    void afterQuery(final String sql) {
+        SqlStatistics statistics = currentStatistics.get();
+        if (statistics != null) {
+            statistics.queryExecuted(sql);
+        }
+    }
+
+    void rowFetched() {
+        SqlStatistics statistics = currentStatistics.get();
+        if (statistics != null) {
+            statistics.rowFetched();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.upgrad.quora.service.datasource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC work of a single request: statements executed, rows fetched and time spent executing statements.
+ * Only the request thread updates it, so the counters are plain fields.
+ */
+public final class SqlStatistics {
+
+    private final String endpoint;
+
+    private final int statementBudget;
+
+    private int statements;
+
+    private long rows;
+
+    private long jdbcNanos;
+
+    private long queryStartNanos;
+
+    //Executions of every distinct SQL string, the same statement run over and over is the mark of an N+1 select
+    private final Map<String, Integer> executionsBySql = new HashMap<String, Integer>();
+
+    private String mostRepeatedSql;
+
+    private int mostRepeatedCount;
+
+    SqlStatistics(final String endpoint, final int statementBudget) {
+        this.endpoint = endpoint;
+        this.statementBudget = statementBudget;
+    }
+
+    void queryStarted() {
+        queryStartNanos = System.nanoTime();
+    }
+
+    void queryExecuted(final String sql) {
+        jdbcNanos += System.nanoTime() - queryStartNanos;
+        statements++;
+        Integer executions = executionsBySql.get(sql);
+        executions = executions == null ? 1 : executions + 1;
+        executionsBySql.put(sql, executions);
+        if (executions > mostRepeatedCount) {
+            mostRepeatedCount = executions;
+            mostRepeatedSql = sql;
+        }
+    }
+
+    void rowFetched() {
+        rows++;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getStatementBudget() {
+        return statementBudget;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public String getMostRepeatedSql() {
+        return mostRepeatedSql;
+    }
+
+    public int getMostRepeatedCount() {
+        return mostRepeatedCount;
+    }
+
+    public boolean isOverBudget() {
+        return statements > statementBudget;
+    }
+
+    @Override
+    public String toString() {
+        return endpoint + ": " + statements + " statements (budget " + statementBudget + "), " + rows + " rows, "
+                + (jdbcNanos / 1000000) + " ms in JDBC";
+    }
+}
@@ -0,0 +1,49 @@
+package com.upgrad.quora.service.datasource;
+
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the data source of JPA in a datasource-proxy which counts the statements and rows of every request.
+ * Only the bean named dataSource is wrapped, the pools behind it keep their own types, and with replicas configured
+ * the proxy sits in front of the lazy connection proxy so the statements of every route are counted.
+ */
+@Component
+public class SqlStatisticsDataSourcePostProcessor implements BeanPostProcessor {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    //Resolved once the data source is created, a bean injected into a BeanPostProcessor is initialized ahead of the other post processors
+    @Autowired
+    private ObjectProvider<SqlStatementBudget> sqlStatementBudget;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (!(bean instanceof DataSource) || !DATA_SOURCE_BEAN.equals(beanName)) {
+            return bean;
+        }
+        //Spring Boot only binds the pool metrics of data source beans which are Hikari pools themselves, which the proxy hides
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (bean instanceof HikariDataSource && registry != null) {
+            ((HikariDataSource) bean).setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        SqlStatisticsListener listener = new SqlStatisticsListener(sqlStatementBudget.getObject());
+        return ProxyDataSourceBuilder.create(DATA_SOURCE_BEAN, (DataSource) bean)
+                .listener(listener)
+                .methodListener(listener)
+                .proxyResultSet()
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.upgrad.quora.service.datasource;
+
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Feeds the statements and fetched rows seen by the data source proxy into the statistics of the current request.
+ * A JDBC batch counts as a single statement, as it is a single round trip.
+ */
+class SqlStatisticsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private final SqlStatementBudget sqlStatementBudget;
+
+    SqlStatisticsListener(final SqlStatementBudget sqlStatementBudget) {
+        this.sqlStatementBudget = sqlStatementBudget;
+    }
+
+    @Override
+    public void beforeQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+        sqlStatementBudget.beforeQuery();
+    }
+
+    @Override
+    public void afterQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+        sqlStatementBudget.afterQuery(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery());
+    }
+
+    @Override
+    public void beforeMethod(final MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(final MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            sqlStatementBudget.rowFetched();
+        }
+    }
+}
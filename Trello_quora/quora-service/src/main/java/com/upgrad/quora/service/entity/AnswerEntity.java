@@ -1,5 +1,7 @@
 package com.upgrad.quora.service.entity;
 
+import com.upgrad.quora.service.common.AnswerSearchHit;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -7,11 +9,32 @@ import java.time.ZonedDateTime;
 
 @Entity
 @Table(name = "ANSWER")
+@NamedEntityGraph(name = "answer.authorAndQuestion", attributeNodes = {@NamedAttributeNode("user"), @NamedAttributeNode("question")})
+@NamedQueries(
+        {
+                @NamedQuery(name = "answerByUuid", query = "select a from AnswerEntity a where a.uuid = :uuid"),
+                @NamedQuery(name = "answerIdsByUserId", query = "select a.id from AnswerEntity a where a.user.id = :userId"),
+                @NamedQuery(name = "answerIdsByQuestionUserId", query = "select a.id from AnswerEntity a where a.question.user.id = :userId"),
+                @NamedQuery(name = "deleteAnswersByIds", query = "delete from AnswerEntity a where a.id in :ids"),
+                @NamedQuery(name = "answerSummariesByQuestionId", query = "select new com.upgrad.quora.service.common.AnswerSummary(a.uuid, a.answer, a.date, u.uuid, u.userName) from AnswerEntity a join a.user u where a.question.id = :questionId and u.deletedAt is null order by a.date, a.id")
+        }
+)
+@SqlResultSetMapping(name = "answerSearchHit", classes = @ConstructorResult(targetClass = AnswerSearchHit.class, columns = {
+        @ColumnResult(name = "id", type = Long.class), @ColumnResult(name = "uuid"), @ColumnResult(name = "answer"), @ColumnResult(name = "question_content"), @ColumnResult(name = "score", type = Float.class)}))
+@NamedNativeQueries(
+        {
+                @NamedNativeQuery(name = "lockQuestionsOfAnswers", query = "select q.id from QUESTION q where q.id in (select a.question_id from ANSWER a where a.id in (:ids)) order by q.id for update of q"),
+                @NamedNativeQuery(name = "deleteAnswersAndSubtractCounts", query = "with deleted as (delete from ANSWER where id in (:ids) returning question_id), uncounted as (update QUESTION q set answer_count = q.answer_count - c.answers from (select question_id, count(*) as answers from deleted group by question_id) c where q.id = c.question_id) select count(*) from deleted"),
+                @NamedNativeQuery(name = "answerSearch", resultSetMapping = "answerSearchHit", query = "select a.id, a.uuid, a.ans as answer, q.content as question_content, ts_rank_cd(a.ans_tsv, query) as score from plainto_tsquery('english', :query) query, ANSWER a join QUESTION q on q.id = a.question_id join USERS au on au.id = a.user_id join USERS qu on qu.id = q.user_id where a.ans_tsv @@ query and au.deleted_at is null and qu.deleted_at is null order by score desc, a.id desc"),
+                @NamedNativeQuery(name = "answerSearchAfter", resultSetMapping = "answerSearchHit", query = "select hit.* from (select a.id, a.uuid, a.ans as answer, q.content as question_content, ts_rank_cd(a.ans_tsv, query) as score from plainto_tsquery('english', :query) query, ANSWER a join QUESTION q on q.id = a.question_id join USERS au on au.id = a.user_id join USERS qu on qu.id = q.user_id where a.ans_tsv @@ query and au.deleted_at is null and qu.deleted_at is null) hit where hit.score < :afterRank or (hit.score = :afterRank and hit.id < :afterId) order by hit.score desc, hit.id desc")
+        }
+)
 public class AnswerEntity {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenceGenerator(name = "answerIdGenerator", sequenceName = "answer_id_seq", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "answerIdGenerator")
     private long id;
 
     @Column(name = "uuid")
@@ -28,11 +51,11 @@ public class AnswerEntity {
     @NotNull
     private ZonedDateTime date;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private UserEntity user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "question_id")
     private QuestionEntity question;
 
@@ -1,5 +1,7 @@
 package com.upgrad.quora.service.entity;
 
+import com.upgrad.quora.service.common.QuestionSearchHit;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -8,11 +10,37 @@ import java.time.ZonedDateTime;
 
 @Entity
 @Table(name = "QUESTION")
+@NamedEntityGraph(name = "question.author", attributeNodes = @NamedAttributeNode("user"))
+@NamedQueries(
+        {
+                @NamedQuery(name = "questionByUuid", query = "select q from QuestionEntity q where q.uuid = :uuid"),
+                @NamedQuery(name = "questionSummariesByIds", query = "select new com.upgrad.quora.service.common.QuestionSummary(q.id, q.uuid, q.content) from QuestionEntity q join q.user u where q.id in :ids and u.deletedAt is null"),
+                @NamedQuery(name = "questionIdsByUserId", query = "select q.id from QuestionEntity q where q.user.id = :userId"),
+                @NamedQuery(name = "questionSummaryByUuid", query = "select q.id, q.content from QuestionEntity q where q.uuid = :uuid"),
+                @NamedQuery(name = "questionKeys", query = "select q.date, q.id from QuestionEntity q join q.user u where u.deletedAt is null order by q.date desc, q.id desc"),
+                @NamedQuery(name = "questionIdsAfter", query = "select q.id from QuestionEntity q where q.id > :afterId order by q.id"),
+                @NamedQuery(name = "deleteQuestionsByIds", query = "delete from QuestionEntity q where q.id in :ids"),
+                @NamedQuery(name = "addToAnswerCount", query = "update QuestionEntity q set q.answerCount = q.answerCount + :delta where q.id = :id"),
+                @NamedQuery(name = "questionKeysAfter", query = "select q.date, q.id from QuestionEntity q join q.user u where u.deletedAt is null and (q.date < :afterDate or (q.date = :afterDate and q.id < :afterId)) order by q.date desc, q.id desc")
+        }
+)
+@SqlResultSetMapping(name = "questionSearchHit", classes = @ConstructorResult(targetClass = QuestionSearchHit.class, columns = {
+        @ColumnResult(name = "id", type = Long.class), @ColumnResult(name = "uuid"), @ColumnResult(name = "content"), @ColumnResult(name = "score", type = Float.class)}))
+@NamedNativeQueries(
+        {
+                @NamedNativeQuery(name = "lockQuestionsBetween", query = "select q.id from QUESTION q where q.id > :afterId and q.id <= :upToId order by q.id for update"),
+                @NamedNativeQuery(name = "reconcileAnswerCounts", query = "update QUESTION q set answer_count = c.answers from (select q2.id, count(a.id) as answers from QUESTION q2 left join ANSWER a on a.question_id = q2.id where q2.id > :afterId and q2.id <= :upToId group by q2.id) c where q.id = c.id and q.answer_count <> c.answers"),
+                @NamedNativeQuery(name = "questionSearch", resultSetMapping = "questionSearchHit", query = "select q.id, q.uuid, q.content, ts_rank_cd(q.content_tsv, query) as score from plainto_tsquery('english', :query) query, QUESTION q join USERS u on u.id = q.user_id where q.content_tsv @@ query and u.deleted_at is null order by score desc, q.id desc"),
+                @NamedNativeQuery(name = "questionSearchAfter", resultSetMapping = "questionSearchHit", query = "select hit.* from (select q.id, q.uuid, q.content, ts_rank_cd(q.content_tsv, query) as score from plainto_tsquery('english', :query) query, QUESTION q join USERS u on u.id = q.user_id where q.content_tsv @@ query and u.deleted_at is null) hit where hit.score < :afterRank or (hit.score = :afterRank and hit.id < :afterId) order by hit.score desc, hit.id desc")
+        }
+)
 public class QuestionEntity implements Serializable {
 
+    //Ids are allocated from the sequence in blocks, so that inserts can be batched instead of returning every key on its own round trip
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenceGenerator(name = "questionIdGenerator", sequenceName = "question_id_seq", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "questionIdGenerator")
     private long id;
 
     @Column(name = "uuid")
@@ -29,10 +57,14 @@ public class QuestionEntity implements Serializable {
     @NotNull
     private ZonedDateTime date;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private UserEntity user;
 
+    //Maintained by the database with atomic increments, never written back from the entity
+    @Column(name = "answer_count", insertable = false, updatable = false)
+    private int answerCount;
+
     public long getId() {
         return id;
     }
@@ -72,4 +104,8 @@ public class QuestionEntity implements Serializable {
     public void setUser(UserEntity user) {
         this.user = user;
     }
+
+    public int getAnswerCount() {
+        return answerCount;
+    }
 }
@@ -1,5 +1,7 @@
 package com.upgrad.quora.service.entity;
 
+import com.upgrad.quora.service.common.AccessTokenDigest;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -10,14 +12,18 @@ import java.time.ZonedDateTime;
 @Table(name = "USER_AUTH")
 @NamedQueries(
         {
-                @NamedQuery(name = "userAuthTokenByAccessToken", query = "select ut from UserAuthTokenEntity ut where ut.accessToken = :accessToken"),
+                @NamedQuery(name = "userAuthTokenSnapshotByAccessToken", query = "select new com.upgrad.quora.service.common.UserAuthTokenSnapshot(u.id, u.uuid, u.role, ut.expiresAt, ut.logoutAt) from UserAuthTokenEntity ut join ut.user u where ut.accessTokenDigest = :accessTokenDigest and u.deletedAt is null"),
+                @NamedQuery(name = "userAuthTokenByAccessToken", query = "select ut from UserAuthTokenEntity ut where ut.accessTokenDigest = :accessTokenDigest"),
+                @NamedQuery(name = "userAuthTokenIdsByUserId", query = "select ut.id from UserAuthTokenEntity ut where ut.user.id = :userId"),
+                @NamedQuery(name = "deleteUserAuthTokensByIds", query = "delete from UserAuthTokenEntity ut where ut.id in :ids"),
         }
 )
 public class UserAuthTokenEntity implements Serializable {
 
     @Id
     @Column(name = "ID")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenceGenerator(name = "userAuthTokenIdGenerator", sequenceName = "user_auth_id_seq", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "userAuthTokenIdGenerator")
     private long id;
 
     @Column(name = "uuid")
@@ -25,7 +31,7 @@ public class UserAuthTokenEntity implements Serializable {
     @Size(max = 200)
     private String uuid;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "USER_ID")
     private UserEntity user;
 
@@ -34,6 +40,11 @@ public class UserAuthTokenEntity implements Serializable {
     @Size(max = 500)
     private String accessToken;
 
+    @Column(name = "ACCESS_TOKEN_DIGEST")
+    @NotNull
+    @Size(min = 64, max = 64)
+    private String accessTokenDigest;
+
     @Column(name = "EXPIRES_AT")
     @NotNull
     private ZonedDateTime expiresAt;
@@ -77,6 +88,14 @@ public class UserAuthTokenEntity implements Serializable {
         this.accessToken = accessToken;
     }
 
+    public String getAccessTokenDigest() {
+        return accessTokenDigest;
+    }
+
+    public void setAccessTokenDigest(String accessTokenDigest) {
+        this.accessTokenDigest = accessTokenDigest;
+    }
+
     public ZonedDateTime getExpiresAt() {
         return expiresAt;
     }
@@ -100,4 +119,13 @@ public class UserAuthTokenEntity implements Serializable {
     public void setLogoutAt(ZonedDateTime logoutAt) {
         this.logoutAt = logoutAt;
     }
+
+    //Tokens are only ever looked up by their digest, so it is derived from the token whenever the token is written
+    @PrePersist
+    @PreUpdate
+    void computeAccessTokenDigest() {
+        if (accessToken != null) {
+            accessTokenDigest = AccessTokenDigest.of(accessToken);
+        }
+    }
 }
@@ -8,19 +8,28 @@ import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
+import java.time.ZonedDateTime;
 
 @Entity
 @Table(name = "USERS")
 @NamedQueries(
         {
-                @NamedQuery(name = "userByUuid", query = "select ue from UserEntity ue where ue.uuid = :uuid")
+                @NamedQuery(name = "userByUuid", query = "select ue from UserEntity ue where ue.uuid = :uuid and ue.deletedAt is null"),
+                @NamedQuery(name = "userVersionByUuid", query = "select ue.version from UserEntity ue where ue.uuid = :uuid and ue.deletedAt is null"),
+                @NamedQuery(name = "userByUuidIncludingDeleted", query = "select ue from UserEntity ue where ue.uuid = :uuid"),
+                @NamedQuery(name = "userByUserName", query = "select ue from UserEntity ue where ue.userName = :userName and ue.deletedAt is null"),
+                @NamedQuery(name = "userCountByUserName", query = "select count(ue) from UserEntity ue where ue.userName = :userName"),
+                @NamedQuery(name = "userCountByEmail", query = "select count(ue) from UserEntity ue where ue.email = :email"),
+                @NamedQuery(name = "updateUserPassword", query = "update UserEntity ue set ue.salt = :salt, ue.password = :password where ue.id = :id and ue.password = :oldPassword"),
+                @NamedQuery(name = "deleteUserById", query = "delete from UserEntity ue where ue.id = :id")
         }
 )
 public class UserEntity implements Serializable {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenceGenerator(name = "userIdGenerator", sequenceName = "users_id_seq", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "userIdGenerator")
     private long id;
 
     @Column(name = "uuid")
@@ -81,6 +90,15 @@ public class UserEntity implements Serializable {
     @Size(max = 30)
     private String contactNumber;
 
+    //Set when an admin deletes the user, the rows of the user are then purged in the background
+    @Column(name = "deleted_at")
+    private ZonedDateTime deletedAt;
+
+    //Incremented by every update of the user, the ETag of the user profile is derived from it
+    @Version
+    @Column(name = "version")
+    private int version;
+
     @Override
     public boolean equals(Object obj) {
         return new EqualsBuilder().append(this, obj).isEquals();
@@ -199,4 +217,20 @@ public class UserEntity implements Serializable {
     public void setContactNumber(String contactNumber) {
         this.contactNumber = contactNumber;
     }
+
+    public ZonedDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(ZonedDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
 }
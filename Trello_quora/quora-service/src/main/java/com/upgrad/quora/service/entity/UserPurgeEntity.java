@@ -0,0 +1,154 @@
+package com.upgrad.quora.service.entity;
+
+import com.upgrad.quora.service.common.UserPurgeProgress;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Purge of a deleted user, shared by every node: the node running the purge holds a lease on it and records its progress batch by batch.
+ * The row outlives the user it purges, so that the status of a completed purge can still be reported for a while.
+ */
+@Entity
+@Table(name = "USER_PURGE")
+@NamedQueries(
+        {
+                @NamedQuery(name = "userPurgeByUserUuid", query = "select p from UserPurgeEntity p where p.userUuid = :userUuid"),
+                @NamedQuery(name = "recordUserPurgeBatch", query = "update UserPurgeEntity p set p.phase = :phase, p.answersPurged = p.answersPurged + :answers, " +
+                        "p.questionsPurged = p.questionsPurged + :questions, p.authTokensPurged = p.authTokensPurged + :authTokens, " +
+                        "p.claimedUntil = :claimedUntil, p.updatedAt = :updatedAt where p.userUuid = :userUuid"),
+                @NamedQuery(name = "deleteEndedUserPurges", query = "delete from UserPurgeEntity p where p.phase = :phase and p.updatedAt < :cutoff")
+        }
+)
+@NamedNativeQueries(
+        {
+                //Rows locked by another node claiming at the same time are skipped rather than waited for
+                @NamedNativeQuery(name = "claimableUserPurge", resultClass = UserPurgeEntity.class, query = "select p.* from USER_PURGE p where p.phase <> 'COMPLETED' " +
+                        "and p.next_attempt_at <= :now and (p.claimed_until is null or p.claimed_until < :now) order by p.next_attempt_at limit 1 for update skip locked")
+        }
+)
+public class UserPurgeEntity implements Serializable {
+
+    @Id
+    @Column(name = "user_uuid")
+    @NotNull
+    @Size(max = 200)
+    private String userUuid;
+
+    @Column(name = "user_id")
+    @NotNull
+    private long userId;
+
+    @Column(name = "phase")
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private UserPurgeProgress.Phase phase;
+
+    @Column(name = "answers_purged")
+    private long answersPurged;
+
+    @Column(name = "questions_purged")
+    private long questionsPurged;
+
+    @Column(name = "auth_tokens_purged")
+    private long authTokensPurged;
+
+    //Failed attempts in a row, the retries back off exponentially with them
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    @NotNull
+    private ZonedDateTime nextAttemptAt;
+
+    //Lease of the node running the purge, renewed with every batch so that the purge is taken over if the node dies
+    @Column(name = "claimed_until")
+    private ZonedDateTime claimedUntil;
+
+    @Column(name = "updated_at")
+    @NotNull
+    private ZonedDateTime updatedAt;
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public void setUserUuid(String userUuid) {
+        this.userUuid = userUuid;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public UserPurgeProgress.Phase getPhase() {
+        return phase;
+    }
+
+    public void setPhase(UserPurgeProgress.Phase phase) {
+        this.phase = phase;
+    }
+
+    public long getAnswersPurged() {
+        return answersPurged;
+    }
+
+    public void setAnswersPurged(long answersPurged) {
+        this.answersPurged = answersPurged;
+    }
+
+    public long getQuestionsPurged() {
+        return questionsPurged;
+    }
+
+    public void setQuestionsPurged(long questionsPurged) {
+        this.questionsPurged = questionsPurged;
+    }
+
+    public long getAuthTokensPurged() {
+        return authTokensPurged;
+    }
+
+    public void setAuthTokensPurged(long authTokensPurged) {
+        this.authTokensPurged = authTokensPurged;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public ZonedDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(ZonedDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public ZonedDateTime getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(ZonedDateTime claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(ZonedDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
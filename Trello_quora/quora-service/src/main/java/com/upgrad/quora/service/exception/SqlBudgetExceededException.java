@@ -0,0 +1,42 @@
+package com.upgrad.quora.service.exception;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+
+/**
+ * SqlBudgetExceededException is thrown from the JDBC layer when a request is about to execute more statements than the budget of its endpoint.
+ * It is unchecked as it has to pass through JDBC and Hibernate, and rolls the transaction of the request back.
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+    private final String code;
+    private final String errorMessage;
+
+    public SqlBudgetExceededException(final String code, final String errorMessage) {
+        this.code = code;
+        this.errorMessage = errorMessage;
+    }
+
+    @Override
+    public void printStackTrace() {
+        super.printStackTrace();
+    }
+
+    @Override
+    public void printStackTrace(PrintStream s) {
+        super.printStackTrace(s);
+    }
+
+    @Override
+    public void printStackTrace(PrintWriter s) {
+        super.printStackTrace(s);
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.upgrad.quora.service.job;
+
+
+import com.upgrad.quora.service.dao.QuestionDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Verifies the denormalized answer counts of the questions against the ANSWER table and repairs any drift.
+ * The questions are walked in id order in batches, each batch in its own short transaction, so that answers to
+ * other questions are never held up for longer than a single batch.
+ */
+@Component
+public class AnswerCountReconciliationJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnswerCountReconciliationJob.class);
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${quora.answer-count.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quora.answer-count.reconcile.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${quora.answer-count.reconcile.interval-ms:3600000}", fixedDelayString = "${quora.answer-count.reconcile.interval-ms:3600000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        long afterId = 0;
+        int batches = 0;
+        int repaired = 0;
+        while (true) {
+            final long batchAfterId = afterId;
+            final Long upToId = transactionTemplate.execute(new TransactionCallback<Long>() {
+                @Override
+                public Long doInTransaction(final TransactionStatus status) {
+                    return questionDao.getQuestionIdBoundary(batchAfterId, batchSize);
+                }
+            });
+            //The final batch runs up to the largest id
+            final long batchUpToId = upToId == null ? Long.MAX_VALUE : upToId;
+            repaired += transactionTemplate.execute(new TransactionCallback<Integer>() {
+                @Override
+                public Integer doInTransaction(final TransactionStatus status) {
+                    return questionDao.reconcileAnswerCounts(batchAfterId, batchUpToId);
+                }
+            });
+            batches++;
+            if (upToId == null) {
+                break;
+            }
+            afterId = upToId;
+        }
+        if (repaired > 0) {
+            LOGGER.warn("Repaired {} drifted answer counts in {} batches in {} ms", repaired, batches, System.currentTimeMillis() - start);
+        } else {
+            LOGGER.info("Verified answer counts in {} batches in {} ms", batches, System.currentTimeMillis() - start);
+        }
+    }
+}
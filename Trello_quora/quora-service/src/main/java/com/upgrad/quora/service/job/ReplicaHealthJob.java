@@ -0,0 +1,25 @@
+package com.upgrad.quora.service.job;
+
+
+import com.upgrad.quora.service.datasource.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Probes the read replicas, a replica which is down or lags too far behind is taken out of rotation and its reads go to the primary.
+ * Does nothing unless replicas are configured.
+ */
+@Component
+public class ReplicaHealthJob {
+
+    @Autowired(required = false)
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Scheduled(fixedDelayString = "${quora.datasource.replicas.health-interval-ms:5000}")
+    public void checkReplicas() {
+        if (replicaRoutingDataSource != null) {
+            replicaRoutingDataSource.checkHealth();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.upgrad.quora.service.job;
+
+
+import com.upgrad.quora.service.dao.UserAuthPartitionDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the daily partitions of USER_AUTH in shape: creates the partitions of the coming days ahead of the sign-ins which fill them,
+ * and drops whole partitions once every token in them has expired, instead of deleting expired sessions row by row.
+ * Every partition is created or dropped in its own short transaction, as both lock USER_AUTH against sign-ins for their duration.
+ * The default partition only holds the tokens expiring beyond the partitions created so far, they are moved out as their partition is created.
+ */
+@Component
+@ConditionalOnProperty(prefix = "quora.user-auth.partitions", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserAuthPartitionReaper {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserAuthPartitionReaper.class);
+
+    @Autowired
+    private UserAuthPartitionDao userAuthPartitionDao;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${quora.user-auth.partitions.days-ahead:7}")
+    private int daysAhead;
+
+    @Value("${quora.user-auth.partitions.retention-days:1}")
+    private int retentionDays;
+
+    private final AtomicLong runs = new AtomicLong();
+
+    private final AtomicLong reclaimedRows = new AtomicLong();
+
+    private final AtomicLong droppedPartitions = new AtomicLong();
+
+    private final AtomicLong createdPartitions = new AtomicLong();
+
+    private final AtomicLong totalRunMillis = new AtomicLong();
+
+    private volatile long lastRunMillis;
+
+    @Scheduled(initialDelayString = "${quora.user-auth.partitions.initial-delay-ms:60000}", fixedDelayString = "${quora.user-auth.partitions.interval-ms:3600000}")
+    public void maintainPartitions() {
+        final long start = System.currentTimeMillis();
+        final LocalDate today = LocalDate.now();
+        //Tokens of a partition are all expired once its day is over, the retention keeps signed out sessions around for a while longer
+        final LocalDate dropBefore = today.minusDays(retentionDays);
+
+        final Set<LocalDate> existingDays = new HashSet<LocalDate>(transactionTemplate.execute(new TransactionCallback<List<LocalDate>>() {
+            @Override
+            public List<LocalDate> doInTransaction(final TransactionStatus status) {
+                return userAuthPartitionDao.getPartitionDays();
+            }
+        }));
+
+        long reclaimed = 0;
+        int dropped = 0;
+        for (final LocalDate day : existingDays) {
+            if (!day.isBefore(dropBefore)) {
+                continue;
+            }
+            Long rows = transactionTemplate.execute(new TransactionCallback<Long>() {
+                @Override
+                public Long doInTransaction(final TransactionStatus status) {
+                    //Another node may have dropped the partition since the partitions were listed
+                    if (!userAuthPartitionDao.tryLockMaintenance() || !userAuthPartitionDao.getPartitionDays().contains(day)) {
+                        return null;
+                    }
+                    long rows = userAuthPartitionDao.countRows(day);
+                    userAuthPartitionDao.dropPartition(day);
+                    return rows;
+                }
+            });
+            if (rows != null) {
+                reclaimed += rows;
+                dropped++;
+            }
+        }
+
+        int created = 0;
+        for (int offset = 0; offset <= daysAhead; offset++) {
+            final LocalDate day = today.plusDays(offset);
+            if (existingDays.contains(day)) {
+                continue;
+            }
+            Boolean partitionCreated = transactionTemplate.execute(new TransactionCallback<Boolean>() {
+                @Override
+                public Boolean doInTransaction(final TransactionStatus status) {
+                    //Another node may have created the partition since the partitions were listed
+                    if (!userAuthPartitionDao.tryLockMaintenance() || userAuthPartitionDao.getPartitionDays().contains(day)) {
+                        return false;
+                    }
+                    userAuthPartitionDao.createPartition(day);
+                    return true;
+                }
+            });
+            if (partitionCreated) {
+                created++;
+            }
+        }
+
+        final long runMillis = System.currentTimeMillis() - start;
+        runs.incrementAndGet();
+        reclaimedRows.addAndGet(reclaimed);
+        droppedPartitions.addAndGet(dropped);
+        createdPartitions.addAndGet(created);
+        totalRunMillis.addAndGet(runMillis);
+        lastRunMillis = runMillis;
+        LOGGER.info("Maintained USER_AUTH partitions in {} ms: dropped {} partitions reclaiming {} rows, created {} partitions",
+                runMillis, dropped, reclaimed, created);
+    }
+
+    public long getRuns() {
+        return runs.get();
+    }
+
+    public long getReclaimedRows() {
+        return reclaimedRows.get();
+    }
+
+    public long getDroppedPartitions() {
+        return droppedPartitions.get();
+    }
+
+    public long getCreatedPartitions() {
+        return createdPartitions.get();
+    }
+
+    public long getTotalRunMillis() {
+        return totalRunMillis.get();
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+}
@@ -0,0 +1,202 @@
+package com.upgrad.quora.service.job;
+
+
+import com.upgrad.quora.service.common.UserPurgeProgress;
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.dao.UserPurgeDao;
+import com.upgrad.quora.service.entity.UserPurgeEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Purges the rows of users marked as deleted in bounded batches, each batch in its own short transaction, so that
+ * deleting a prolific user never holds locks on more than one batch of rows at a time.
+ * The purges are queued in USER_PURGE, shared by every node: a node claims one purge at a time with FOR UPDATE SKIP LOCKED and holds a
+ * lease on it, renewed with every batch, so that each purge runs on a single node and is taken over if that node dies.
+ * The progress is recorded in the transaction of each batch, so every node reports the same status.
+ * A failed purge is retried with an exponential backoff, every batch committed so far stays purged.
+ */
+@Component
+public class UserPurgeJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserPurgeJob.class);
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private AnswerDao answerDao;
+
+    @Autowired
+    private UserPurgeDao userPurgeDao;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${quora.user-purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${quora.user-purge.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${quora.user-purge.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${quora.user-purge.retry.initial-seconds:10}")
+    private long retryInitialSeconds;
+
+    @Value("${quora.user-purge.retry.max-seconds:3600}")
+    private long retryMaxSeconds;
+
+    @Scheduled(fixedDelayString = "${quora.user-purge.poll-interval-ms:1000}")
+    public void purgePendingUsers() {
+        inTransaction(new TransactionCallback<Integer>() {
+            @Override
+            public Integer doInTransaction(final TransactionStatus status) {
+                return userPurgeDao.deleteEndedUserPurges(ZonedDateTime.now().minusMinutes(retentionMinutes));
+            }
+        });
+        while (true) {
+            UserPurgeEntity userPurge = transactionTemplate.execute(new TransactionCallback<UserPurgeEntity>() {
+                @Override
+                public UserPurgeEntity doInTransaction(final TransactionStatus status) {
+                    ZonedDateTime now = ZonedDateTime.now();
+                    return userPurgeDao.claimUserPurge(now, now.plusSeconds(leaseSeconds));
+                }
+            });
+            if (userPurge == null) {
+                return;
+            }
+            try {
+                purge(userPurge.getUserId(), userPurge.getUserUuid());
+            } catch (RuntimeException e) {
+                int attempts = failed(userPurge.getUserUuid());
+                LOGGER.warn("Purge of deleted user {} failed {} times in a row, it will be retried", userPurge.getUserUuid(), attempts, e);
+            }
+        }
+    }
+
+    private void purge(final long userId, final String userUuid) {
+        final long start = System.currentTimeMillis();
+
+        //Answers of the user, uncounted from the questions of other users as they go
+        while (true) {
+            int purged = inTransaction(new TransactionCallback<Integer>() {
+                @Override
+                public Integer doInTransaction(final TransactionStatus status) {
+                    List<Long> answerIds = answerDao.getAnswerIdsByUser(userId, batchSize);
+                    int deleted = answerIds.isEmpty() ? 0 : answerDao.deleteAnswersAndSubtractCounts(answerIds);
+                    recordBatch(userUuid, UserPurgeProgress.Phase.ANSWERS, deleted, 0, 0);
+                    //Answers deleted concurrently must not end the purge before the last batch
+                    return answerIds.size();
+                }
+            });
+            if (purged < batchSize) {
+                break;
+            }
+        }
+
+        //Answers of other users to the questions of the user, no count needs fixing as the questions go too
+        while (true) {
+            int purged = inTransaction(new TransactionCallback<Integer>() {
+                @Override
+                public Integer doInTransaction(final TransactionStatus status) {
+                    List<Long> answerIds = answerDao.getAnswerIdsToQuestionsOfUser(userId, batchSize);
+                    int deleted = answerIds.isEmpty() ? 0 : answerDao.deleteAnswers(answerIds);
+                    recordBatch(userUuid, UserPurgeProgress.Phase.ANSWERS_TO_QUESTIONS, deleted, 0, 0);
+                    return deleted;
+                }
+            });
+            if (purged < batchSize) {
+                break;
+            }
+        }
+
+        while (true) {
+            int purged = inTransaction(new TransactionCallback<Integer>() {
+                @Override
+                public Integer doInTransaction(final TransactionStatus status) {
+                    List<Long> questionIds = questionDao.getQuestionIdsByUser(userId, batchSize);
+                    int deleted = questionIds.isEmpty() ? 0 : questionDao.deleteQuestions(questionIds);
+                    recordBatch(userUuid, UserPurgeProgress.Phase.QUESTIONS, 0, deleted, 0);
+                    return deleted;
+                }
+            });
+            if (purged < batchSize) {
+                break;
+            }
+        }
+
+        while (true) {
+            int purged = inTransaction(new TransactionCallback<Integer>() {
+                @Override
+                public Integer doInTransaction(final TransactionStatus status) {
+                    List<Long> userAuthTokenIds = userDao.getUserAuthTokenIdsByUser(userId, batchSize);
+                    int deleted = userAuthTokenIds.isEmpty() ? 0 : userDao.deleteUserAuthTokens(userAuthTokenIds);
+                    recordBatch(userUuid, UserPurgeProgress.Phase.AUTH_TOKENS, 0, 0, deleted);
+                    return deleted;
+                }
+            });
+            if (purged < batchSize) {
+                break;
+            }
+        }
+
+        //Anything added while the batches ran is small and removed by ON DELETE CASCADE
+        UserPurgeEntity userPurge = transactionTemplate.execute(new TransactionCallback<UserPurgeEntity>() {
+            @Override
+            public UserPurgeEntity doInTransaction(final TransactionStatus status) {
+                userDao.deleteUser(userId);
+                UserPurgeEntity userPurge = userPurgeDao.getUserPurge(userUuid);
+                userPurge.setPhase(UserPurgeProgress.Phase.COMPLETED);
+                userPurge.setClaimedUntil(null);
+                userPurge.setUpdatedAt(ZonedDateTime.now());
+                return userPurge;
+            }
+        });
+        LOGGER.info("Purged deleted user {}: {} answers, {} questions, {} access tokens in {} ms", userUuid,
+                userPurge.getAnswersPurged(), userPurge.getQuestionsPurged(), userPurge.getAuthTokensPurged(), System.currentTimeMillis() - start);
+    }
+
+    private void recordBatch(final String userUuid, final UserPurgeProgress.Phase phase, final int answers, final int questions, final int authTokens) {
+        userPurgeDao.recordBatch(userUuid, phase, answers, questions, authTokens, ZonedDateTime.now().plusSeconds(leaseSeconds));
+    }
+
+    //Releases the lease and schedules the retry, the delay doubles with every failure in a row up to the maximum
+    private int failed(final String userUuid) {
+        return inTransaction(new TransactionCallback<Integer>() {
+            @Override
+            public Integer doInTransaction(final TransactionStatus status) {
+                UserPurgeEntity userPurge = userPurgeDao.getUserPurge(userUuid);
+                int attempts = userPurge.getAttempts() + 1;
+                long delaySeconds = Math.min(retryMaxSeconds, retryInitialSeconds << Math.min(attempts - 1, 30));
+                ZonedDateTime now = ZonedDateTime.now();
+                userPurge.setPhase(UserPurgeProgress.Phase.FAILED);
+                userPurge.setAttempts(attempts);
+                userPurge.setNextAttemptAt(now.plusSeconds(delaySeconds));
+                userPurge.setClaimedUntil(null);
+                userPurge.setUpdatedAt(now);
+                return attempts;
+            }
+        });
+    }
+
+    private int inTransaction(final TransactionCallback<Integer> batch) {
+        return transactionTemplate.execute(batch);
+    }
+}
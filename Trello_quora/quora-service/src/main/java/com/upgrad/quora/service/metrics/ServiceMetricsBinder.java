@@ -0,0 +1,152 @@
+package com.upgrad.quora.service.metrics;
+
+
+import com.upgrad.quora.service.business.PasswordHashingExecutor;
+import com.upgrad.quora.service.business.RevokedTokenRegistry;
+import com.upgrad.quora.service.dao.UserAuthTokenCache;
+import com.upgrad.quora.service.job.UserAuthPartitionReaper;
+import com.upgrad.quora.service.search.QuestionSearchIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Exposes the counters the in-memory components already keep as meters, they are read on scrape and add nothing to the request path.
+ */
+@Component
+public class ServiceMetricsBinder implements MeterBinder {
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private UserAuthTokenCache userAuthTokenCache;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    //Absent while quora.user-auth.partitions.enabled is off
+    @Autowired(required = false)
+    private UserAuthPartitionReaper userAuthPartitionReaper;
+
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("quora.password.hashing.queue", passwordHashingExecutor, new ToDoubleFunction<PasswordHashingExecutor>() {
+            @Override
+            public double applyAsDouble(final PasswordHashingExecutor executor) {
+                return executor.getQueueDepth();
+            }
+        }).description("Password hashes waiting for a thread").register(registry);
+        Gauge.builder("quora.password.hashing.active", passwordHashingExecutor, new ToDoubleFunction<PasswordHashingExecutor>() {
+            @Override
+            public double applyAsDouble(final PasswordHashingExecutor executor) {
+                return executor.getActiveCount();
+            }
+        }).register(registry);
+        FunctionCounter.builder("quora.password.hashing.rejected", passwordHashingExecutor, new ToDoubleFunction<PasswordHashingExecutor>() {
+            @Override
+            public double applyAsDouble(final PasswordHashingExecutor executor) {
+                return executor.getRejectedCount();
+            }
+        }).description("Password hashes rejected with a full queue").register(registry);
+        FunctionTimer.builder("quora.password.hashing", passwordHashingExecutor, new ToLongFunction<PasswordHashingExecutor>() {
+            @Override
+            public long applyAsLong(final PasswordHashingExecutor executor) {
+                return executor.getCompletedCount();
+            }
+        }, new ToDoubleFunction<PasswordHashingExecutor>() {
+            @Override
+            public double applyAsDouble(final PasswordHashingExecutor executor) {
+                return executor.getTotalHashNanos();
+            }
+        }, TimeUnit.NANOSECONDS).register(registry);
+        Gauge.builder("quora.password.hashing.max", passwordHashingExecutor, new ToDoubleFunction<PasswordHashingExecutor>() {
+            @Override
+            public double applyAsDouble(final PasswordHashingExecutor executor) {
+                return executor.getMaxHashNanos() / 1e9;
+            }
+        }).baseUnit("seconds").register(registry);
+
+        FunctionCounter.builder("quora.auth.token.cache.requests", userAuthTokenCache, new ToDoubleFunction<UserAuthTokenCache>() {
+            @Override
+            public double applyAsDouble(final UserAuthTokenCache cache) {
+                return cache.getHitCount();
+            }
+        }).tag("result", "hit").register(registry);
+        FunctionCounter.builder("quora.auth.token.cache.requests", userAuthTokenCache, new ToDoubleFunction<UserAuthTokenCache>() {
+            @Override
+            public double applyAsDouble(final UserAuthTokenCache cache) {
+                return cache.getMissCount();
+            }
+        }).tag("result", "miss").register(registry);
+        FunctionCounter.builder("quora.auth.token.cache.evictions", userAuthTokenCache, new ToDoubleFunction<UserAuthTokenCache>() {
+            @Override
+            public double applyAsDouble(final UserAuthTokenCache cache) {
+                return cache.getEvictionCount();
+            }
+        }).register(registry);
+        Gauge.builder("quora.auth.token.cache.size", userAuthTokenCache, new ToDoubleFunction<UserAuthTokenCache>() {
+            @Override
+            public double applyAsDouble(final UserAuthTokenCache cache) {
+                return cache.size();
+            }
+        }).register(registry);
+        Gauge.builder("quora.auth.revoked.tokens", revokedTokenRegistry, new ToDoubleFunction<RevokedTokenRegistry>() {
+            @Override
+            public double applyAsDouble(final RevokedTokenRegistry tokens) {
+                return tokens.size();
+            }
+        }).register(registry);
+
+        if (userAuthPartitionReaper != null) {
+            FunctionCounter.builder("quora.user.auth.reaper.runs", userAuthPartitionReaper, new ToDoubleFunction<UserAuthPartitionReaper>() {
+                @Override
+                public double applyAsDouble(final UserAuthPartitionReaper reaper) {
+                    return reaper.getRuns();
+                }
+            }).register(registry);
+            FunctionCounter.builder("quora.user.auth.reaper.reclaimed.rows", userAuthPartitionReaper, new ToDoubleFunction<UserAuthPartitionReaper>() {
+                @Override
+                public double applyAsDouble(final UserAuthPartitionReaper reaper) {
+                    return reaper.getReclaimedRows();
+                }
+            }).register(registry);
+            FunctionCounter.builder("quora.user.auth.reaper.partitions", userAuthPartitionReaper, new ToDoubleFunction<UserAuthPartitionReaper>() {
+                @Override
+                public double applyAsDouble(final UserAuthPartitionReaper reaper) {
+                    return reaper.getCreatedPartitions();
+                }
+            }).tag("action", "created").register(registry);
+            FunctionCounter.builder("quora.user.auth.reaper.partitions", userAuthPartitionReaper, new ToDoubleFunction<UserAuthPartitionReaper>() {
+                @Override
+                public double applyAsDouble(final UserAuthPartitionReaper reaper) {
+                    return reaper.getDroppedPartitions();
+                }
+            }).tag("action", "dropped").register(registry);
+            Gauge.builder("quora.user.auth.reaper.last.run", userAuthPartitionReaper, new ToDoubleFunction<UserAuthPartitionReaper>() {
+                @Override
+                public double applyAsDouble(final UserAuthPartitionReaper reaper) {
+                    return reaper.getLastRunMillis() / 1e3;
+                }
+            }).baseUnit("seconds").register(registry);
+        }
+
+        Gauge.builder("quora.search.index.questions", questionSearchIndex, new ToDoubleFunction<QuestionSearchIndex>() {
+            @Override
+            public double applyAsDouble(final QuestionSearchIndex index) {
+                return index.size();
+            }
+        }).register(registry);
+    }
+}
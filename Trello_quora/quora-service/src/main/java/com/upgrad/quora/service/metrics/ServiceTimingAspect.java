@@ -0,0 +1,77 @@
+package com.upgrad.quora.service.metrics;
+
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the business services and of UserDao, with a percentile histogram per method and outcome.
+ * The aspect is the outermost advice, so the time of a transactional method includes its commit.
+ * Timers are looked up once per method and cached, a call only pays for two clock reads and the histogram update.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceTimingAspect {
+
+    public static final String METRIC_NAME = "quora.service.calls";
+
+    private static final int SUCCESS = 0;
+
+    private static final int ERROR = 1;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Method, Timer[]> timers = new ConcurrentHashMap<Method, Timer[]>();
+
+    @Around("execution(public * com.upgrad.quora.service.business.*BusinessService.*(..)) " +
+            "|| execution(public * com.upgrad.quora.service.dao.UserDao.*(..))")
+    public Object time(final ProceedingJoinPoint joinPoint) throws Throwable {
+        final Timer[] methodTimers = timersOf(((MethodSignature) joinPoint.getSignature()).getMethod());
+        final long start = System.nanoTime();
+        try {
+            final Object result = joinPoint.proceed();
+            methodTimers[SUCCESS].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable t) {
+            methodTimers[ERROR].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw t;
+        }
+    }
+
+    private Timer[] timersOf(final Method method) {
+        Timer[] methodTimers = timers.get(method);
+        if (methodTimers == null) {
+            Timer[] created = new Timer[]{timer(method, "success"), timer(method, "error")};
+            methodTimers = timers.putIfAbsent(method, created);
+            if (methodTimers == null) {
+                methodTimers = created;
+            }
+        }
+        return methodTimers;
+    }
+
+    private Timer timer(final Method method, final String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Calls of the business services and user queries")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,463 @@
+package com.upgrad.quora.service.search;
+
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over the content of the questions, ranked with BM25.
+ * Every indexed question gets a dense document number, and the posting list of a term is a pair of primitive int arrays
+ * holding the document numbers and the term frequencies. Edited and deleted questions leave a tombstone behind, which is
+ * skipped at query time and dropped once tombstones make up a quarter of the index.
+ * While the index is rebuilt from the database, the questions edited concurrently are remembered so that the stale rows of
+ * the rebuild snapshot do not overwrite them.
+ */
+@Component
+public class QuestionSearchIndex {
+
+    private static final float K1 = 1.2f;
+
+    private static final float B = 0.75f;
+
+    private static final Set<String> STOP_WORDS = new HashSet<String>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "how", "in", "is", "it", "of", "on", "or",
+            "that", "the", "this", "to", "was", "what", "when", "where", "which", "who", "why", "with"));
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> postings = new HashMap<String, PostingList>();
+
+    private final Map<Long, Integer> documentByQuestionId = new HashMap<Long, Integer>();
+
+    private long[] questionIds = new long[1024];
+
+    private int[] documentLengths = new int[1024];
+
+    private final BitSet deleted = new BitSet();
+
+    private int documentCount;
+
+    private int liveDocumentCount;
+
+    private long totalLiveLength;
+
+    private Set<Long> editedDuringRebuild;
+
+    @Value("${quora.search.max-results:100}")
+    private int maxResults = 100;
+
+    /**
+     * Adds the question to the index, replacing any earlier version of it.
+     */
+    public void index(final long questionId, final String content) {
+        final Map<String, Integer> termFrequencies = termFrequencies(content);
+        int length = 0;
+        for (Integer frequency : termFrequencies.values()) {
+            length += frequency;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (editedDuringRebuild != null) {
+                editedDuringRebuild.add(questionId);
+            }
+            addDocument(questionId, length, termFrequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a question read by the rebuild, unless the question was edited or deleted since the rebuild began.
+     */
+    public void indexSnapshot(final long questionId, final String content) {
+        final Map<String, Integer> termFrequencies = termFrequencies(content);
+        int length = 0;
+        for (Integer frequency : termFrequencies.values()) {
+            length += frequency;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (editedDuringRebuild == null || !editedDuringRebuild.contains(questionId)) {
+                addDocument(questionId, length, termFrequencies);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops every document and starts remembering the edits, to be called before the snapshot of the rebuild is read.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            editedDuringRebuild = new HashSet<Long>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endRebuild() {
+        lock.writeLock().lock();
+        try {
+            editedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the question from the index.
+     */
+    public void remove(final long questionId) {
+        lock.writeLock().lock();
+        try {
+            if (editedDuringRebuild != null) {
+                editedDuringRebuild.add(questionId);
+            }
+            removeDocument(questionId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param query - free text query
+     * @param limit - maximum number of hits, capped by quora.search.max-results
+     * @return - ids of the best matching questions, best match first
+     */
+    public long[] search(final String query, final int limit) {
+        final Set<String> terms = termFrequencies(query).keySet();
+        final int k = Math.max(0, Math.min(limit, maxResults));
+        if (terms.isEmpty() || k == 0) {
+            return new long[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocumentCount == 0) {
+                return new long[0];
+            }
+            int candidates = 0;
+            for (String term : terms) {
+                final PostingList postingList = postings.get(term);
+                if (postingList != null) {
+                    candidates += postingList.size;
+                }
+            }
+            if (candidates == 0) {
+                return new long[0];
+            }
+            final ScoreAccumulator accumulator = new ScoreAccumulator(Math.min(candidates, liveDocumentCount));
+            final float averageLength = (float) totalLiveLength / liveDocumentCount;
+            for (String term : terms) {
+                final PostingList postingList = postings.get(term);
+                if (postingList == null) {
+                    continue;
+                }
+                final int documentFrequency = postingList.liveSize(deleted);
+                final float idf = (float) Math.log(1 + (liveDocumentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                final int[] documents = postingList.documents;
+                final int[] frequencies = postingList.frequencies;
+                for (int i = 0; i < postingList.size; i++) {
+                    final int document = documents[i];
+                    if (deleted.get(document)) {
+                        continue;
+                    }
+                    final float frequency = frequencies[i];
+                    final float norm = K1 * (1 - B + B * documentLengths[document] / averageLength);
+                    accumulator.add(document, idf * frequency * (K1 + 1) / (frequency + norm));
+                }
+            }
+            return accumulator.topK(k, questionIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocumentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentByQuestionId.clear();
+            deleted.clear();
+            questionIds = new long[1024];
+            documentLengths = new int[1024];
+            documentCount = 0;
+            liveDocumentCount = 0;
+            totalLiveLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //Lowercases the text and splits it on everything but letters and digits, dropping stop words and single characters
+    static Map<String, Integer> termFrequencies(final String text) {
+        final Map<String, Integer> frequencies = new HashMap<String, Integer>();
+        if (text == null) {
+            return frequencies;
+        }
+        final String lowerCase = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            final boolean tokenChar = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                final String term = lowerCase.substring(start, i);
+                if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+                    final Integer frequency = frequencies.get(term);
+                    frequencies.put(term, frequency == null ? 1 : frequency + 1);
+                }
+                start = -1;
+            }
+        }
+        return frequencies;
+    }
+
+    private void addDocument(final long questionId, final int length, final Map<String, Integer> termFrequencies) {
+        removeDocument(questionId);
+        compactIfNeeded();
+        final int document = documentCount++;
+        ensureDocumentCapacity(documentCount);
+        questionIds[document] = questionId;
+        documentLengths[document] = length;
+        documentByQuestionId.put(questionId, document);
+        liveDocumentCount++;
+        totalLiveLength += length;
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            PostingList postingList = postings.get(entry.getKey());
+            if (postingList == null) {
+                postingList = new PostingList();
+                postings.put(entry.getKey(), postingList);
+            }
+            postingList.add(document, entry.getValue());
+        }
+    }
+
+    private void removeDocument(final long questionId) {
+        final Integer document = documentByQuestionId.remove(questionId);
+        if (document != null) {
+            deleted.set(document);
+            liveDocumentCount--;
+            totalLiveLength -= documentLengths[document];
+        }
+    }
+
+    //Edits leave tombstones just as deletes do, so both paths compact
+    private void compactIfNeeded() {
+        if (deleted.cardinality() > documentCount / 4 && documentCount > 1024) {
+            compact();
+        }
+    }
+
+    //Renumbers the live documents densely and rewrites every posting list without the tombstones
+    private void compact() {
+        final int[] renumbered = new int[documentCount];
+        int live = 0;
+        for (int document = 0; document < documentCount; document++) {
+            if (deleted.get(document)) {
+                renumbered[document] = -1;
+            } else {
+                renumbered[document] = live;
+                questionIds[live] = questionIds[document];
+                documentLengths[live] = documentLengths[document];
+                documentByQuestionId.put(questionIds[live], live);
+                live++;
+            }
+        }
+        final List<String> emptyTerms = new ArrayList<String>();
+        for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+            if (entry.getValue().renumber(renumbered) == 0) {
+                emptyTerms.add(entry.getKey());
+            }
+        }
+        for (String term : emptyTerms) {
+            postings.remove(term);
+        }
+        deleted.clear();
+        documentCount = live;
+    }
+
+    private void ensureDocumentCapacity(final int capacity) {
+        if (capacity > questionIds.length) {
+            final int newCapacity = Math.max(capacity, questionIds.length * 2);
+            questionIds = Arrays.copyOf(questionIds, newCapacity);
+            documentLengths = Arrays.copyOf(documentLengths, newCapacity);
+        }
+    }
+
+    private static final class PostingList {
+
+        private int[] documents = new int[4];
+
+        private int[] frequencies = new int[4];
+
+        private int size;
+
+        private void add(final int document, final int frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        //The tombstones are not counted in the document frequency, without tombstones it is the size
+        private int liveSize(final BitSet deleted) {
+            if (deleted.isEmpty()) {
+                return size;
+            }
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                if (!deleted.get(documents[i])) {
+                    live++;
+                }
+            }
+            return live;
+        }
+
+        private int renumber(final int[] renumbered) {
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                final int document = renumbered[documents[i]];
+                if (document >= 0) {
+                    documents[live] = document;
+                    frequencies[live] = frequencies[i];
+                    live++;
+                }
+            }
+            size = live;
+            documents = Arrays.copyOf(documents, Math.max(live, 4));
+            frequencies = Arrays.copyOf(frequencies, Math.max(live, 4));
+            return live;
+        }
+    }
+
+    /**
+     * Open addressing map from document number to score, sized by the postings of the query terms rather than by the index.
+     */
+    private static final class ScoreAccumulator {
+
+        private final int[] keys;
+
+        private final float[] scores;
+
+        private final int shift;
+
+        private final int mask;
+
+        private ScoreAccumulator(final int expectedDocuments) {
+            //Load factor of at most one half, keys are stored as document + 1 so that 0 marks a free slot
+            final int capacity = Integer.highestOneBit(Math.max(expectedDocuments, 8) * 2 - 1) << 1;
+            keys = new int[capacity];
+            scores = new float[capacity];
+            shift = Integer.numberOfLeadingZeros(capacity) + 1;
+            mask = capacity - 1;
+        }
+
+        private void add(final int document, final float score) {
+            final int key = document + 1;
+            int slot = (key * 0x9E3779B9) >>> shift;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            scores[slot] += score;
+        }
+
+        //Selects the k best documents with a bounded min-heap over parallel primitive arrays
+        private long[] topK(final int k, final long[] questionIds) {
+            final int[] heapDocuments = new int[k];
+            final float[] heapScores = new float[k];
+            int heapSize = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] == 0) {
+                    continue;
+                }
+                final int document = keys[slot] - 1;
+                final float score = scores[slot];
+                if (heapSize < k) {
+                    heapDocuments[heapSize] = document;
+                    heapScores[heapSize] = score;
+                    siftUp(heapDocuments, heapScores, heapSize++);
+                } else if (score > heapScores[0]) {
+                    heapDocuments[0] = document;
+                    heapScores[0] = score;
+                    siftDown(heapDocuments, heapScores, heapSize);
+                }
+            }
+            final long[] result = new long[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                result[i] = questionIds[heapDocuments[0]];
+                heapDocuments[0] = heapDocuments[i];
+                heapScores[0] = heapScores[i];
+                siftDown(heapDocuments, heapScores, i);
+            }
+            return result;
+        }
+
+        private static void siftUp(final int[] documents, final float[] scores, int index) {
+            while (index > 0) {
+                final int parent = (index - 1) >>> 1;
+                if (scores[parent] <= scores[index]) {
+                    return;
+                }
+                swap(documents, scores, parent, index);
+                index = parent;
+            }
+        }
+
+        private static void siftDown(final int[] documents, final float[] scores, final int size) {
+            int index = 0;
+            while (true) {
+                final int left = 2 * index + 1;
+                if (left >= size) {
+                    return;
+                }
+                final int right = left + 1;
+                final int smallest = right < size && scores[right] < scores[left] ? right : left;
+                if (scores[index] <= scores[smallest]) {
+                    return;
+                }
+                swap(documents, scores, index, smallest);
+                index = smallest;
+            }
+        }
+
+        private static void swap(final int[] documents, final float[] scores, final int i, final int j) {
+            final int document = documents[i];
+            documents[i] = documents[j];
+            documents[j] = document;
+            final float score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+    }
+}
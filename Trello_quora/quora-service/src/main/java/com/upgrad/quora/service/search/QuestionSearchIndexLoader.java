@@ -0,0 +1,47 @@
+package com.upgrad.quora.service.search;
+
+
+import com.upgrad.quora.service.dao.QuestionContentHandler;
+import com.upgrad.quora.service.dao.QuestionDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Builds the question search index at startup by streaming the QUESTION table, later changes are applied incrementally by QuestionBusinessService.
+ * Requests are already served while the table is streamed, a question edited or deleted meanwhile keeps its live version rather than the row of the snapshot.
+ */
+@Component
+public class QuestionSearchIndexLoader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuestionSearchIndexLoader.class);
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void load() {
+        final long start = System.currentTimeMillis();
+        questionSearchIndex.beginRebuild();
+        try {
+            questionDao.scrollQuestionContents(new QuestionContentHandler() {
+                @Override
+                public void handle(final long id, final String content) {
+                    questionSearchIndex.indexSnapshot(id, content);
+                }
+            });
+        } finally {
+            questionSearchIndex.endRebuild();
+        }
+        LOGGER.info("Indexed {} questions for search in {} ms", questionSearchIndex.size(), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,101 @@
+package com.upgrad.quora.service.business;
+
+
+import com.upgrad.quora.service.exception.HashingCapacityExceededException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PasswordHashingExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private PasswordHashingExecutor executor;
+
+    private Thread running;
+
+    private Thread queued;
+
+    @Before
+    public void setUp() {
+        PasswordCryptographyProvider provider = mock(PasswordCryptographyProvider.class);
+        when(provider.matches(anyString(), anyString(), anyString())).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(final InvocationOnMock invocation) throws Throwable {
+                release.await();
+                return true;
+            }
+        });
+        executor = new PasswordHashingExecutor(1, 1, 3);
+        ReflectionTestUtils.setField(executor, "passwordCryptographyProvider", provider);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        if (running != null) {
+            running.join();
+        }
+        if (queued != null) {
+            queued.join();
+        }
+        executor.shutdown();
+    }
+
+    //This test case passes when a hash is rejected with the retry delay once the only thread is busy and the queue is full.
+    @Test
+    public void rejectsHashingWhenQueueIsFull() throws InterruptedException {
+        running = matchInBackground();
+        queued = matchInBackground();
+        while (executor.getActiveCount() < 1 || executor.getQueueDepth() < 1) {
+            Thread.sleep(10);
+        }
+
+        try {
+            executor.matches("password", "salt", "hash");
+            fail("Expected the full hashing queue to reject the hash");
+        } catch (HashingCapacityExceededException e) {
+            assertEquals("GEN-002", e.getCode());
+            assertEquals(3, e.getRetryAfterSeconds());
+        }
+        assertEquals(1, executor.getRejectedCount());
+    }
+
+    //This test case passes when the hashes waiting in the queue complete once the busy thread is free again.
+    @Test
+    public void queuedHashingCompletes() throws InterruptedException {
+        running = matchInBackground();
+        queued = matchInBackground();
+        release.countDown();
+        running.join();
+        queued.join();
+        assertEquals(2, executor.getCompletedCount());
+        assertEquals(0, executor.getRejectedCount());
+    }
+
+    private Thread matchInBackground() {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    executor.matches("password", "salt", "hash");
+                } catch (HashingCapacityExceededException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,62 @@
+package com.upgrad.quora.service.dao;
+
+
+import com.upgrad.quora.service.common.UserAuthTokenSnapshot;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class UserAuthTokenCacheTest {
+
+    private UserAuthTokenCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new UserAuthTokenCache(100, 300);
+    }
+
+    //This test case passes when a token looked up before its own invalidation is not cached.
+    @Test
+    public void staleLookupOfInvalidatedTokenIsNotCached() {
+        long generation = cache.generation();
+        cache.invalidate("token1");
+        cache.put("token1", snapshot("user1"), generation);
+        assertNull(cache.get("token1"));
+    }
+
+    //This test case passes when the invalidation of one token does not keep another token out of the cache.
+    @Test
+    public void invalidationOfOtherTokenDoesNotPreventCaching() {
+        long generation = cache.generation();
+        cache.invalidate("token1");
+        cache.put("token2", snapshot("user1"), generation);
+        assertNotNull(cache.get("token2"));
+    }
+
+    //This test case passes when a token of a user looked up before the user was invalidated is not cached.
+    @Test
+    public void staleLookupOfInvalidatedUserIsNotCached() {
+        long generation = cache.generation();
+        cache.invalidateUser("user1");
+        cache.put("token1", snapshot("user1"), generation);
+        cache.put("token2", snapshot("user2"), generation);
+        assertNull(cache.get("token1"));
+        assertNotNull(cache.get("token2"));
+    }
+
+    //This test case passes when a token looked up after its invalidation is cached again.
+    @Test
+    public void lookupAfterInvalidationIsCached() {
+        cache.invalidate("token1");
+        cache.put("token1", snapshot("user1"), cache.generation());
+        assertNotNull(cache.get("token1"));
+    }
+
+    private static UserAuthTokenSnapshot snapshot(final String userUuid) {
+        return new UserAuthTokenSnapshot(1, userUuid, "nonadmin", ZonedDateTime.now().plusHours(1), null);
+    }
+}
@@ -0,0 +1,66 @@
+package com.upgrad.quora.service.datasource;
+
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReadYourWritesPolicyTest {
+
+    private ReadYourWritesPolicy policy;
+
+    @Before
+    public void setUp() {
+        policy = new ReadYourWritesPolicy();
+        ReflectionTestUtils.setField(policy, "windowSeconds", 5L);
+    }
+
+    @After
+    public void tearDown() {
+        policy.unbind();
+    }
+
+    //This test case passes when a user who has not written reads from the replicas.
+    @Test
+    public void readsWithoutWriteMayUseReplica() {
+        policy.bind("user1");
+        assertFalse(policy.mustReadPrimary());
+    }
+
+    //This test case passes when a user reads from the primary right after their own write.
+    @Test
+    public void readsAfterOwnWriteUsePrimary() {
+        policy.bind("user1");
+        policy.recordWrite();
+        assertTrue(policy.mustReadPrimary());
+    }
+
+    //This test case passes when the write of one user does not keep the reads of another user on the primary.
+    @Test
+    public void writeOfOtherUserDoesNotPinReads() {
+        policy.bind("user1");
+        policy.recordWrite();
+        policy.bind("user2");
+        assertFalse(policy.mustReadPrimary());
+    }
+
+    //This test case passes when requests without a signed in user are never pinned to the primary.
+    @Test
+    public void anonymousReadsMayUseReplica() {
+        policy.recordWrite();
+        assertFalse(policy.mustReadPrimary());
+    }
+
+    //This test case passes when a window of zero seconds turns read-your-writes off.
+    @Test
+    public void zeroWindowNeverPinsReads() {
+        ReflectionTestUtils.setField(policy, "windowSeconds", 0L);
+        policy.bind("user1");
+        policy.recordWrite();
+        assertFalse(policy.mustReadPrimary());
+    }
+}
@@ -0,0 +1,134 @@
+package com.upgrad.quora.service.datasource;
+
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+
+    private DataSource replica0;
+
+    private DataSource replica1;
+
+    private ReadYourWritesPolicy policy;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Before
+    public void setUp() {
+        primary = mock(DataSource.class);
+        replica0 = mock(DataSource.class);
+        replica1 = mock(DataSource.class);
+        policy = new ReadYourWritesPolicy();
+        ReflectionTestUtils.setField(policy, "windowSeconds", 5L);
+        routingDataSource = new ReplicaRoutingDataSource(primary, Arrays.asList(replica0, replica1), policy, 10);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        policy.unbind();
+    }
+
+    //This test case passes when connections outside of a read-only transaction go to the primary.
+    @Test
+    public void writesRouteToPrimary() {
+        assertEquals("primary", routingDataSource.determineCurrentLookupKey());
+    }
+
+    //This test case passes when read-only transactions go to the replicas in turn.
+    @Test
+    public void readOnlyTransactionsRouteToReplicasInTurn() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("replica-0", routingDataSource.determineCurrentLookupKey());
+        assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+        assertEquals("replica-0", routingDataSource.determineCurrentLookupKey());
+    }
+
+    //This test case passes when a user who committed a write reads it back from the primary.
+    @Test
+    public void readAfterCommittedWriteRoutesToPrimary() {
+        policy.bind("user1");
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertEquals("primary", routingDataSource.determineCurrentLookupKey());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("primary", routingDataSource.determineCurrentLookupKey());
+    }
+
+    //This test case passes when a rolled back write does not keep the reads of the user on the primary.
+    @Test
+    public void rolledBackWriteDoesNotPinReads() {
+        policy.bind("user1");
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        routingDataSource.determineCurrentLookupKey();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertTrue(routingDataSource.determineCurrentLookupKey().toString().startsWith("replica-"));
+    }
+
+    //This test case passes when the reads of an unreachable replica fail over to the primary and the replica leaves the rotation.
+    @Test
+    public void unreachableReplicaFailsOverToPrimary() throws SQLException {
+        Connection primaryConnection = mock(Connection.class);
+        Connection replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica0.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(replica1.getConnection()).thenReturn(replicaConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        //replica-0 is tried once, the reads after it go to replica-1 alone
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertSame(replicaConnection, routingDataSource.getConnection());
+        assertSame(replicaConnection, routingDataSource.getConnection());
+        assertEquals(1, routingDataSource.getHealthyReplicas());
+        assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+    }
+
+    //This test case passes when the reads go to the primary while no replica is healthy.
+    @Test
+    public void noHealthyReplicaRoutesToPrimary() throws SQLException {
+        when(replica0.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(replica1.getConnection()).thenThrow(new SQLException("Connection refused"));
+        routingDataSource.checkHealth();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(0, routingDataSource.getHealthyReplicas());
+        assertEquals("primary", routingDataSource.determineCurrentLookupKey());
+
+        Connection primaryConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+}